@@ -0,0 +1,79 @@
+import taxigame.benchmarks.GameFixture;
+
+import java.util.Properties;
+
+/**
+ * The benchmark fixture, in the game's own package so it can reach the world's per-frame passes directly.
+ */
+public class TaxiGameFixture implements GameFixture {
+    private static final String PROPERTIES_FILE = "res/app.properties";
+
+    private GameWorld world;
+
+    @Override
+    public void createWorld(String objectsFile, int cars, int fireballs, long seed) {
+        Properties props = IOUtils.readPropertiesFile(PROPERTIES_FILE);
+        props.setProperty("gamePlay.objectsFile", objectsFile);
+        GameConfig config = GameConfig.fromProperties(props);
+        world = new GameWorld(config, seed);
+
+        int[] lanes = {config.laneCenter1, config.laneCenter2, config.laneCenter3};
+        RandomService random = new RandomService(seed);
+        EntityStore<Car> worldCars = world.getCars();
+        for (int i = 0; i < cars; i++) {
+            String image = config.otherCar.getImage(1 + i % config.otherCar.types);
+            Car car = new Car(lanes[i % lanes.length], spreadY(i, cars), image,
+                    config.otherCar.radius,
+                    random.getCarSpeed(),
+                    worldCars);
+            car.reset(car.getX(), car.getY(), image);
+            worldCars.add(car);
+        }
+        EntityStore<Fireball> worldFireballs = world.getFireballs();
+        for (int i = 0; i < fireballs; i++) {
+            worldFireballs.add(new Fireball(lanes[i % lanes.length], spreadY(i, fireballs),
+                    config.fireball.image,
+                    config.fireball.radius,
+                    0,
+                    config.fireball.shootSpeedY,
+                    worldFireballs));
+        }
+    }
+
+    /*
+    method to space entities evenly down the starting view
+     */
+    private static double spreadY(int index, int count) {
+        return (index + 0.5) * GameWorld.WINDOW_HEIGHT / count;
+    }
+
+    @Override
+    public void updateGameObjects() {
+        world.updateGameObjects(InputFrame.NONE);
+    }
+
+    @Override
+    public void handleCollisions() {
+        world.handleCollisions();
+    }
+
+    @Override
+    public void readGameObjects() {
+        world.readGameObjects();
+    }
+
+    @Override
+    public Object readCommaSeparatedFile(String file) {
+        return IOUtils.readCommaSeparatedFile(file);
+    }
+
+    @Override
+    public Object loadLevel(String file) {
+        return LevelLayout.fromFile(file);
+    }
+
+    @Override
+    public Object loadTopScores(String file, int count) {
+        return new Leaderboard(file, count).getTopEntries();
+    }
+}
@@ -0,0 +1,77 @@
+package taxigame.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the CSV files the benchmarks load, in the formats of the game's own files.
+ */
+final class CsvFiles {
+    private static final int[] LANES = {280, 500, 700};
+    private static final double LEVEL_BOTTOM_Y = 700;
+
+    private CsvFiles() {
+    }
+
+    /**
+     * Writes a game objects file holding the taxi and driver followed by passengers, spaced evenly
+     * from the bottom of the starting view up to a y-coordinate.
+     *
+     * @param passengers The number of passengers
+     * @param topY The y-coordinate of the highest passenger
+     * @return The path of the new file, deleted when the JVM exits
+     */
+    static Path writeGameObjects(int passengers, double topY) {
+        Path file = createTempFile("gameObjects");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("TAXI,500,600\n");
+            writer.write("DRIVER,500,600\n");
+            double spacing = passengers > 1 ? (LEVEL_BOTTOM_Y - topY) / (passengers - 1) : 0;
+            for (int i = 0; i < passengers; i++) {
+                int x = LANES[i % LANES.length];
+                int endX = LANES[(i + 1) % LANES.length];
+                double y = LEVEL_BOTTOM_Y - i * spacing;
+                writer.write(String.format(Locale.ROOT, "PASSENGER,%d,%.1f,%d,%d,%d,%d%n",
+                        x, y, 1 + i % 3, endX, 300 + i % 400, i % 2));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    /**
+     * Writes a scores file of random names and scores.
+     *
+     * @param rows The number of scores
+     * @param seed The seed the scores are drawn from
+     * @return The path of the new file, deleted when the JVM exits
+     */
+    static Path writeScores(int rows, long seed) {
+        Path file = createTempFile("scores");
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(String.format(Locale.ROOT, "player%d,%.2f%n", i, random.nextDouble(0, 1000)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    private static Path createTempFile(String prefix) {
+        try {
+            Path file = Files.createTempFile(prefix, ".csv");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
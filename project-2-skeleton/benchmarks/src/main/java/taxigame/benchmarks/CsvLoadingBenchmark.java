@@ -0,0 +1,61 @@
+package taxigame.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the game's CSV files as they grow, from the generic reader used for the weather
+ * file to the level and scores loaders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLoadingBenchmark {
+    private static final long SEED = 42;
+    private static final int TOP_SCORE_COUNT = 5;
+    private static final double PASSENGER_SPACING = 100;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int rows;
+
+    private GameFixture fixture;
+    private String objectsFile;
+    private String scoresFile;
+
+    @Setup(Level.Trial)
+    public void writeFiles() {
+        fixture = GameFixture.create();
+        objectsFile = CsvFiles.writeGameObjects(rows, -rows * PASSENGER_SPACING).toString();
+        scoresFile = CsvFiles.writeScores(rows, SEED).toString();
+    }
+
+    @Benchmark
+    public Object readCommaSeparatedFile() {
+        return fixture.readCommaSeparatedFile(objectsFile);
+    }
+
+    @Benchmark
+    public Object loadLevel() {
+        return fixture.loadLevel(objectsFile);
+    }
+
+    @Benchmark
+    public Object getTopScores() {
+        return fixture.loadTopScores(scoresFile, TOP_SCORE_COUNT);
+    }
+}
@@ -0,0 +1,77 @@
+package taxigame.benchmarks;
+
+/**
+ * The gameplay operations the benchmarks measure. The game's classes live in the unnamed package,
+ * which named packages cannot import, so the operations are implemented by a fixture class in the
+ * unnamed package and reached through this interface. Reflection is only used to create the fixture.
+ */
+public interface GameFixture {
+    /**
+     * The name of the class implementing the fixture.
+     */
+    String IMPLEMENTATION = "TaxiGameFixture";
+
+    /**
+     * Creates the fixture implementation.
+     *
+     * @return A new fixture with no world
+     */
+    static GameFixture create() {
+        try {
+            return (GameFixture) Class.forName(IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Benchmark fixture " + IMPLEMENTATION + " could not be created", e);
+        }
+    }
+
+    /**
+     * Builds a game world from the game configuration, loading its level from a game objects file
+     * and adding cars and fireballs spread over the lanes of the starting view.
+     *
+     * @param objectsFile The path to the game objects CSV file
+     * @param cars The number of cars to add
+     * @param fireballs The number of fireballs to add
+     * @param seed The seed for the world's random numbers
+     */
+    void createWorld(String objectsFile, int cars, int fireballs, long seed);
+
+    /**
+     * Runs the per-frame entity update of the world, without scrolling.
+     */
+    void updateGameObjects();
+
+    /**
+     * Runs the collision pass of the world.
+     */
+    void handleCollisions();
+
+    /**
+     * Recreates the world's taxi, driver and starting level objects.
+     */
+    void readGameObjects();
+
+    /**
+     * Reads a CSV file with the game's generic reader.
+     *
+     * @param file The path to the CSV file
+     * @return The rows read
+     */
+    Object readCommaSeparatedFile(String file);
+
+    /**
+     * Loads a level from a game objects file.
+     *
+     * @param file The path to the game objects CSV file
+     * @return The level layout
+     */
+    Object loadLevel(String file);
+
+    /**
+     * Loads a scores file and gets its top scores.
+     *
+     * @param file The path to the scores CSV file
+     * @param count The number of top scores to keep
+     * @return The top scores
+     */
+    Object loadTopScores(String file, int count);
+}
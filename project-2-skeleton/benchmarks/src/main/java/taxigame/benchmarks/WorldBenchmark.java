@@ -0,0 +1,75 @@
+package taxigame.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-frame passes of a game world holding the same number of cars, fireballs and
+ * passengers, all within the starting view. Each pass moves, damages or replaces the entities it
+ * visits, so every invocation runs on a world rebuilt outside the timing. The update and collision
+ * passes run a short batch of frames, with the time reported per frame, which keeps the cost of
+ * timing each invocation small while the world stays close to its starting state. Reloading the
+ * game objects is timed once per invocation, since it empties the world it runs on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark {
+    private static final long SEED = 42;
+    private static final int FRAMES = 10;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entityCount;
+
+    private GameFixture fixture;
+    private String objectsFile;
+
+    @Setup(Level.Trial)
+    public void writeLevel() {
+        fixture = GameFixture.create();
+        objectsFile = CsvFiles.writeGameObjects(entityCount, 0).toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void createWorld() {
+        fixture.createWorld(objectsFile, entityCount, entityCount, SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void updateGameObjects() {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            fixture.updateGameObjects();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void handleCollisions() {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            fixture.handleCollisions();
+        }
+    }
+
+    //only the first reload releases the injected cars and fireballs, so each invocation times one
+    @Benchmark
+    public void readGameObjects() {
+        fixture.readGameObjects();
+    }
+}
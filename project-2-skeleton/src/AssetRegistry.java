@@ -0,0 +1,99 @@
+import bagel.Font;
+import bagel.Image;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A registry that loads each image and font once and hands out the shared instance,
+ * so texture and font memory stays flat however many entities are spawned.
+ */
+public class AssetRegistry {
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final Map<String, Image> IMAGES = new HashMap<>();
+    private static final Map<String, Map<Integer, Font>> FONTS = new HashMap<>();
+    private static long imageBytes;
+    private static long fontBytes;
+    private static int fontCount;
+
+    /**
+     * Gets the shared image for a file path, loading it on first request.
+     *
+     * @param path The file path of the image
+     * @return The shared image
+     */
+    public static Image getImage(String path) {
+        Image image = IMAGES.get(path);
+        if (image == null) {
+            image = new Image(path);
+            IMAGES.put(path, image);
+            imageBytes += (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+        }
+        return image;
+    }
+
+    /**
+     * Gets the shared font for a file path and size, loading it on first request.
+     *
+     * @param path The file path of the font
+     * @param size The font size
+     * @return The shared font
+     */
+    public static Font getFont(String path, int size) {
+        Map<Integer, Font> sizes = FONTS.computeIfAbsent(path, key -> new HashMap<>());
+        Font font = sizes.get(size);
+        if (font == null) {
+            font = new Font(path, size);
+            sizes.put(size, font);
+            fontBytes += new File(path).length();
+            fontCount++;
+        }
+        return font;
+    }
+
+    /**
+     * Loads every image and font referenced by the game configuration, so that no asset
+     * is loaded for the first time in the middle of gameplay.
+     *
+     * @param config The compiled game settings
+     */
+    public static void preload(GameConfig config) {
+        for (String path : config.getImagePaths()) {
+            getImage(path);
+        }
+        for (int fontSize : config.getFontSizes()) {
+            getFont(config.fontPath, fontSize);
+        }
+    }
+
+    //getters
+    /**
+     * Gets the number of distinct images loaded.
+     *
+     * @return The number of images
+     */
+    public static int getImageCount() {
+        return IMAGES.size();
+    }
+
+    /**
+     * Gets the number of distinct font and size pairs loaded.
+     *
+     * @return The number of fonts
+     */
+    public static int getFontCount() {
+        return fontCount;
+    }
+
+    /**
+     * Gets the estimated bytes held by loaded assets: uncompressed RGBA textures for
+     * images, plus the font file for every font and size pair.
+     *
+     * @return The estimated number of bytes loaded
+     */
+    public static long getLoadedBytes() {
+        return imageBytes + fontBytes;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * The view onto the game world.
+ * Level objects keep fixed world coordinates, and scrolling the road only changes the camera's
+ * vertical offset, so a screen y-coordinate is the world y-coordinate plus the offset.
+ * At the start of a game the offset is zero, so world and screen coordinates coincide.
+ */
+public class Camera {
+    private double offsetY;
+
+    /**
+     * Moves the camera to the start of the level.
+     */
+    public void reset() {
+        offsetY = 0;
+    }
+
+    /**
+     * Scrolls the road down the screen, as when the taxi drives forward.
+     *
+     * @param distance The distance in pixels to scroll
+     */
+    public void scroll(double distance) {
+        offsetY += distance;
+    }
+
+    /**
+     * Converts a world y-coordinate to a screen y-coordinate.
+     *
+     * @param worldY The world y-coordinate
+     * @return The screen y-coordinate
+     */
+    public double toScreenY(double worldY) {
+        return worldY + offsetY;
+    }
+
+    /**
+     * Converts a screen y-coordinate to a world y-coordinate.
+     *
+     * @param screenY The screen y-coordinate
+     * @return The world y-coordinate
+     */
+    public double toWorldY(double screenY) {
+        return screenY - offsetY;
+    }
+
+    //getters
+    /**
+     * Gets the distance the camera has scrolled since the start of the level.
+     *
+     * @return The vertical offset in pixels
+     */
+    public double getOffsetY() {
+        return offsetY;
+    }
+}
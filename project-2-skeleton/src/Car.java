@@ -1,5 +1,3 @@
-import bagel.util.Point;
-
 /**
  * Represents a car in the game that moves independently and can collide with other entities.
  */
@@ -11,31 +9,46 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
     private static final int DAMAGE_POINTS = 50;
     private static final double CAR_HEALTH = 100;
 
-    private double health;
-    private int collisionTimeout;
     private int damage;
-    private boolean isDamaged;
-    private int separationFramesLeft;
-    private Point separationDirection;
-    private boolean isColliding;
+    private final RandomStream speedRandom;
 
     /**
-     * Constructs a new Car at the specified position.
+     * Constructs a new Car at the specified position, standing still until it is reset. Only reset draws
+     * a speed, so building cars, such as to fill a pool, takes nothing from the speed stream.
      *
      * @param x The x-coordinate of the car's initial position
      * @param y The y-coordinate of the car's initial position
      * @param imagePath The file path to the car's image
      * @param radius The collision radius of the car
+     * @param speedRandom The random stream the car's speeds are drawn from
+     * @param store The store that keeps the car's state
      */
-    public Car(double x, double y, String imagePath, double radius) {
-        super(x, y, imagePath, radius, 0, generateRandomSpeed());
-        this.health = CAR_HEALTH;
-        this.isDamaged = false;
+    public Car(double x, double y, String imagePath, double radius, RandomStream speedRandom,
+               EntityStore<? extends Car> store) {
+        super(x, y, imagePath, radius, 0, 0, store);
+        this.speedRandom = speedRandom;
         this.damage = DAMAGE_POINTS;
+        store.setHealth(id, CAR_HEALTH);
+    }
+
+    /**
+     * Prepares the car to drive again from a new position, as if newly built.
+     * Pooled cars are reset each time they are spawned.
+     *
+     * @param x The x-coordinate of the car's new position
+     * @param y The y-coordinate of the car's new position
+     * @param imagePath The file path to the car's image
+     */
+    public void reset(double x, double y, String imagePath) {
+        setPosition(x, y);
+        setImagePath(imagePath);
+        setSpeedY(generateRandomSpeed());
+        store.setHealth(id, CAR_HEALTH);
+        store.clearCollision(id);
     }
 
-    private static double generateRandomSpeed() {
-        return MIN_SPEED + Math.random() * (MAX_SPEED - MIN_SPEED);
+    private double generateRandomSpeed() {
+        return speedRandom.nextDouble(MIN_SPEED, MAX_SPEED);
     }
 
     /**
@@ -43,8 +56,8 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
      */
     @Override
     public void moveIndependently() {
-        if (!isColliding) {
-            position = new Point(position.x, position.y - speedY);
+        if (!store.isColliding(id)) {
+            setPosition(getX(), getY() - getSpeedY());
         }
     }
 
@@ -53,89 +66,68 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
      */
     @Override
     public void update() {
-        if (collisionTimeout > 0) {
-            collisionTimeout--;
-
-            if (separationFramesLeft > 0) {
-                position = new Point(
-                        position.x + separationDirection.x,
-                        position.y + separationDirection.y
-                );
-                separationFramesLeft--;
-            } else if (collisionTimeout == 0) {
-                //collision timeout ended, choose new random speed
-                speedY = generateRandomSpeed();
-                isColliding = false;
-            }
-        }
-        if (!isColliding) {
-            moveIndependently();
-        }
+        store.stepSeparation(id);
+        moveIndependently();
     }
 
     /**
      * Updates the car's state, considering vertical scrolling of the game world.
+     * A car drives at its own speed relative to the screen, but stays put on the road
+     * while it recovers from a collision, which ends through the store's timer system.
+     * The world updates all its cars at once through the store's timer and movement systems instead.
      *
-     * @param moveDown true if the game world is scrolling down, false otherwise
+     * @param scrollDistance The distance the camera scrolled this frame
      */
-    public void update(boolean moveDown) {
-        if (collisionTimeout > 0) {
-            collisionTimeout--;
-
-            if (separationFramesLeft > 0) {
-                position = new Point(
-                        position.x + separationDirection.x,
-                        position.y + separationDirection.y
-                );
-                separationFramesLeft--;
-            } else if (collisionTimeout == 0) {
-                //collision timeout ended, choose new random speed
-                speedY = generateRandomSpeed();
-                isColliding = false;
-            }
-        }
+    public void update(double scrollDistance) {
+        store.stepSeparation(id);
 
-        if (isColliding) {
-            if (moveDown) {
-                position = new Point(position.x, position.y + SCROLL_SPEED);
-            }
-        }
-
-        if (!isColliding) {
+        if (!store.isColliding(id)) {
+            followCamera(scrollDistance);
             moveIndependently();
         }
     }
 
     /**
-     * Renders the car on the game screen.
+     * Chooses a new random speed once the car has recovered from a collision.
      */
     @Override
-    public void draw() {
-        image.draw(position.x, position.y);
+    protected void onCollisionTimeoutEnded() {
+        setSpeedY(generateRandomSpeed());
+        store.setColliding(id, false);
     }
 
     /**
-     * Handles collision with another game entity.
+     * Draws the car into the snapshot of the current frame.
      *
-     * @param other The other entity involved in the collision
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void handleCollision(GameEntity other) {
-        if (collisionTimeout > 0) return;
-
-        if (other instanceof Damageable) {
-            takeDamage(((Damageable) other).getDamage());
-            collisionTimeout = COLLISION_TIMEOUT;
-            separationFramesLeft = SEPARATION_FRAMES;
-            isColliding = true;
-
-            //determine separation direction
-            if (this.position.y < other.getPosition().y) {
-                separationDirection = new Point(0, 1);
-            } else {
-                separationDirection = new Point(0, -1);
-            }
-        }
+    public void draw(FrameSnapshot frame) {
+        frame.addSprite(this, imagePath, getX(), getY());
+    }
+
+    /**
+     * Gets the collision type of the car.
+     *
+     * @return The collision type
+     */
+    @Override
+    public CollisionType getCollisionType() {
+        return CollisionType.CAR;
+    }
+
+    /**
+     * Handles being hit by the taxi or another car, taking its damage and moving apart from it.
+     *
+     * @param other The entity that hit the car
+     * @param damage The damage the entity inflicts
+     */
+    public void handleHit(GameEntity other, double damage) {
+        if (isInCollisionTimeout()) return;
+
+        takeDamage(damage);
+        //determine separation direction
+        store.startCollision(id, COLLISION_TIMEOUT, SEPARATION_FRAMES, 0, getY() < other.getY() ? 1 : -1);
     }
 
     /**
@@ -145,10 +137,7 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
      */
     @Override
     public void takeDamage(double amount) {
-        health -= amount;
-        if (health <= 0) {
-            isDamaged = true;
-        }
+        store.takeDamage(id, amount);
     }
 
     //getters and setters
@@ -159,7 +148,7 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
      */
     @Override
     public double getHealth() {
-        return health;
+        return store.getHealth(id);
     }
 
     /**
@@ -178,7 +167,7 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
      * @return true if the car is in collision timeout, false otherwise
      */
     public boolean isInCollisionTimeout() {
-        return collisionTimeout > 0;
+        return store.isInCollisionTimeout(id);
     }
 
     /**
@@ -187,6 +176,6 @@ public class Car extends IndependentlyMovableEntity implements Damageable, Colli
      * @return true if the car is damaged, false otherwise
      */
     public boolean isDamaged() {
-        return isDamaged;
+        return getHealth() <= 0;
     }
 }
\ No newline at end of file
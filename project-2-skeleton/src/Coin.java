@@ -1,5 +1,3 @@
-import bagel.util.Point;
-
 /**
  * Represents a coin power-up in the game that can be collected by the taxi or driver.
  */
@@ -28,24 +26,25 @@ public class Coin extends GameEntity implements PowerUp {
     }
 
     /**
-     * Draws the coin on the game screen if it's active.
+     * Draws the coin into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void draw() {
+    public void draw(FrameSnapshot frame) {
         if (isActive) {
-            image.draw(position.x, position.y);
+            frame.addSprite(this, imagePath, x, y);
         }
     }
 
     /**
-     * Moves the coin vertically based on game world scrolling.
+     * Gets the collision type of the coin.
      *
-     * @param moveDown true if the game world is scrolling down, false otherwise
+     * @return The collision type
      */
-    public void moveVertically(boolean moveDown) {
-        if (moveDown) {
-            position = new Point(position.x, position.y + SCROLL_SPEED);
-        }
+    @Override
+    public CollisionType getCollisionType() {
+        return CollisionType.COIN;
     }
 
     /**
@@ -3,9 +3,9 @@
  */
 public interface Collidable {
     /**
-     * Skeleton method to handle the collision between this entity and another game entity.
+     * Gets the collision type of the entity, whose id picks the response to each pair it is part of.
      *
-     * @param other The other entity involved in the collision
+     * @return The collision type, or null if the entity collides with nothing
      */
-    void handleCollision(GameEntity other);
-}
\ No newline at end of file
+    CollisionType getCollisionType();
+}
@@ -0,0 +1,119 @@
+/**
+ * The collision response for every pair of collision types, looked up by type id.
+ * A layer mask per type records which other types it interacts with, so that a collision pass
+ * only tests the pairs that have a handler. Each pair is registered once, with the lower type id
+ * first, and its handler is always called with the entities in that order.
+ * An entity meets the types it is resolved against in the order their pairs were registered, not in
+ * type id order, since one response can change the outcome of the next, such as a power-up making
+ * the entity invincible to a fireball it touches in the same frame.
+ */
+public class CollisionMatrix {
+    private static final int TYPE_COUNT = CollisionType.values().length;
+
+    private final PairHandler<?, ?>[] handlers;
+    private final int[] masks;
+    //the types each type is resolved against, in the order their pairs were registered
+    private final int[][] partners;
+    private final int[] partnerCounts;
+
+    /**
+     * Constructs a new CollisionMatrix in which no types interact.
+     */
+    public CollisionMatrix() {
+        this.handlers = new PairHandler<?, ?>[TYPE_COUNT * TYPE_COUNT];
+        this.masks = new int[TYPE_COUNT];
+        this.partners = new int[TYPE_COUNT][TYPE_COUNT];
+        this.partnerCounts = new int[TYPE_COUNT];
+    }
+
+    /**
+     * Registers the response to a collision between two types, and marks them as interacting.
+     * Entities of the first type are resolved against the second after the types registered before it.
+     *
+     * @param first The type with the lower id
+     * @param second The type with the higher or same id
+     * @param handler The response, given the entities in the order of their types
+     * @param <A> The class of the entities of the first type
+     * @param <B> The class of the entities of the second type
+     */
+    public <A extends GameEntity, B extends GameEntity> void register(CollisionType first, CollisionType second,
+                                                                     PairHandler<A, B> handler) {
+        if (first.ordinal() > second.ordinal()) {
+            throw new IllegalArgumentException("Collision pair " + first + "-" + second
+                    + " must be registered with the lower type id first");
+        }
+        int index = first.ordinal() * TYPE_COUNT + second.ordinal();
+        if (handlers[index] != null) {
+            throw new IllegalArgumentException("Collision pair " + first + "-" + second + " is already registered");
+        }
+        handlers[index] = handler;
+        masks[first.ordinal()] |= 1 << second.ordinal();
+        masks[second.ordinal()] |= 1 << first.ordinal();
+        partners[first.ordinal()][partnerCounts[first.ordinal()]++] = second.ordinal();
+    }
+
+    /**
+     * Checks if two types have a registered response.
+     *
+     * @param first One type
+     * @param second The other type
+     * @return true if the types interact, false otherwise
+     */
+    public boolean interacts(CollisionType first, CollisionType second) {
+        return (masks[first.ordinal()] & (1 << second.ordinal())) != 0;
+    }
+
+    /**
+     * Calls the response to a collision between two entities. The entities must be of
+     * interacting types, with the first having the lower or same type id.
+     *
+     * @param first The entity of the lower type id
+     * @param second The entity of the higher or same type id
+     * @return true if the second entity was used up by the collision and leaves the game
+     */
+    @SuppressWarnings("unchecked")
+    public boolean resolve(GameEntity first, GameEntity second) {
+        int index = first.getCollisionType().ordinal() * TYPE_COUNT + second.getCollisionType().ordinal();
+        return ((PairHandler<GameEntity, GameEntity>) handlers[index]).resolve(first, second);
+    }
+
+    //getters
+    /**
+     * Gets the number of types of the same or a higher id that a type is resolved against.
+     *
+     * @param type The type
+     * @return The number of types
+     */
+    public int getPartnerCount(CollisionType type) {
+        return partnerCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets a type that a type is resolved against, in the order their pair was registered.
+     *
+     * @param type The type
+     * @param index The index of the other type, between 0 and getPartnerCount(type) - 1
+     * @return The id of the other type, which is the same as or higher than the type's
+     */
+    public int getPartner(CollisionType type, int index) {
+        return partners[type.ordinal()][index];
+    }
+
+    /**
+     * The response to a collision between an entity of each type of a pair.
+     *
+     * @param <A> The class of the entities of the type with the lower id
+     * @param <B> The class of the entities of the type with the higher id
+     */
+    @FunctionalInterface
+    public interface PairHandler<A extends GameEntity, B extends GameEntity> {
+        /**
+         * Responds to a collision between two entities.
+         *
+         * @param first The entity of the lower type id
+         * @param second The entity of the higher type id
+         * @return true if the second entity was used up by the collision and leaves the game
+         */
+        boolean resolve(A first, B second);
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * The kinds of entity that take part in collisions. The ordinal of each type is its id in the
+ * collision matrix, and a pair of types is always resolved from the type with the lower id.
+ */
+public enum CollisionType { TAXI, DRIVER, PASSENGER, CAR, ENEMY_CAR, COIN, INVINCIBLE_POWER, FIREBALL }
@@ -1,6 +1,3 @@
-import bagel.*;
-import bagel.util.Point;
-
 /**
  * Represents the driver character that can control taxis and walk independently.
  */
@@ -12,11 +9,15 @@ public class Driver extends MovableEntity implements Damageable, Collidable {
 
     private double health;
     private Taxi currentTaxi;
-    private int invincibilityFrames;
-    private int collisionTimeout;
+    private final TimerWheel timers;
+    private int invincibilityTimer;
+    private int collisionTimer;
+    private final Runnable invincibilityEnded;
+    private final Runnable collisionTimeoutEnded;
     private int damage;
     private int separationFramesLeft;
-    private Point separationDirection;
+    private double separationDx;
+    private double separationDy;
 
     /**
      * Constructs a new Driver at the specified position.
@@ -27,70 +28,71 @@ public class Driver extends MovableEntity implements Damageable, Collidable {
      * @param radius The collision radius of the driver
      * @param speedX The horizontal walking speed of the driver
      * @param speedY The vertical walking speed of the driver
+     * @param timers The wheel the driver's timed effects are scheduled on
      */
-    public Driver(double x, double y, String imagePath, double radius, double speedX, double speedY) {
+    public Driver(double x, double y, String imagePath, double radius, double speedX, double speedY,
+                  TimerWheel timers) {
         super(x, y, imagePath, radius, speedX, speedY);
         this.health = INITIAL_HEALTH;
-        this.invincibilityFrames = 0;
-        this.collisionTimeout = 0;
+        this.timers = timers;
+        this.invincibilityTimer = TimerWheel.NONE;
+        this.collisionTimer = TimerWheel.NONE;
+        this.invincibilityEnded = () -> invincibilityTimer = TimerWheel.NONE;
+        this.collisionTimeoutEnded = () -> collisionTimer = TimerWheel.NONE;
         this.damage = 0;
     }
 
     /**
      * Moves the driver based on user input when not in a taxi.
      *
-     * @param input The current keyboard input
+     * @param input The directional keys held this frame
+     * @param camera The camera the driver is viewed through
      */
     @Override
-    public void move(Input input) {
+    public void move(InputFrame input, Camera camera) {
         if (currentTaxi == null) {
-            if (input.isDown(Keys.LEFT)) {
-                position = new Point(Math.max(0, position.x - speedX), position.y);
+            if (input.isLeft()) {
+                x = Math.max(0, x - speedX);
             }
-            if (input.isDown(Keys.RIGHT)) {
-                position = new Point(Math.min(Window.getWidth(), position.x + speedX), position.y);
+            if (input.isRight()) {
+                x = Math.min(GameWorld.WINDOW_WIDTH, x + speedX);
             }
-            if (input.isDown(Keys.UP)) {
-                position = new Point(position.x, Math.max(0, position.y - speedY));
+            if (input.isUp()) {
+                y = Math.max(camera.toWorldY(0), y - speedY);
             }
-            if (input.isDown(Keys.DOWN)) {
-                position = new Point(position.x, Math.min(Window.getHeight(), position.y + speedY));
+            if (input.isDown()) {
+                y = Math.min(camera.toWorldY(GameWorld.WINDOW_HEIGHT), y + speedY);
             }
         }
     }
 
     /**
-     * Updates the driver's state, including position and power-up durations.
+     * Updates the driver's state, riding with the taxi or stepping apart from what it last hit.
+     * Collision timeouts and power-ups end through the timer wheel.
      */
     @Override
     public void update() {
         if (currentTaxi != null) {
-            position = currentTaxi.getPosition();
-        }
-        if (invincibilityFrames > 0) {
-            invincibilityFrames--;
+            x = currentTaxi.getX();
+            y = currentTaxi.getY();
         }
-        if (collisionTimeout > 0) {
-            collisionTimeout--;
-
-            if (separationFramesLeft > 0) {
-                position = new Point(
-                        position.x + separationDirection.x,
-                        position.y + separationDirection.y
-                );
-                separationFramesLeft--;
-            }
+        if (separationFramesLeft > 0) {
+            x += separationDx;
+            y += separationDy;
+            separationFramesLeft--;
         }
     }
 
     /**
-     * Updates the driver's state, including position and power-up durations.
+     * Draws the driver into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void draw() {
+    public void draw(FrameSnapshot frame) {
         //only draw if taxi was destroyed
         if (currentTaxi == null) {
-            image.draw(position.x, position.y);
+            frame.addSprite(this, imagePath, x, y);
         }
     }
 
@@ -101,34 +103,49 @@ public class Driver extends MovableEntity implements Damageable, Collidable {
      */
     @Override
     public void takeDamage(double amount) {
-        if (invincibilityFrames == 0) {
+        if (invincibilityTimer == TimerWheel.NONE) {
             health -= amount;
-            collisionTimeout = COLLISION_TIMEOUT;
+            setCollisionTimeout(COLLISION_TIMEOUT);
         }
     }
 
     /**
-     * Handles collision with another game entity.
+     * Gets the collision type of the driver.
      *
-     * @param other The other entity involved in the collision
+     * @return The collision type
      */
     @Override
-    public void handleCollision(GameEntity other) {
-        if (collisionTimeout > 0) return;
-
-        if (other instanceof Damageable) {
-            takeDamage(((Damageable) other).getDamage());
-            collisionTimeout = COLLISION_TIMEOUT;
-            separationFramesLeft = SEPARATION_FRAMES;
-
-            //determine separation direction
-            separationDirection = new Point(
-                    position.x < other.getPosition().x ? -2 : 2,
-                    position.y < other.getPosition().y ? -2 : 2
-            );
-        } else if (other instanceof PowerUp) {
-            ((PowerUp) other).applyEffect(this);
-        }
+    public CollisionType getCollisionType() {
+        return CollisionType.DRIVER;
+    }
+
+    /**
+     * Handles being hit by a car or fireball, taking its damage and moving apart from it.
+     *
+     * @param other The entity that hit the driver
+     * @param damage The damage the entity inflicts
+     */
+    public void handleHit(GameEntity other, double damage) {
+        if (collisionTimer != TimerWheel.NONE) return;
+
+        takeDamage(damage);
+        setCollisionTimeout(COLLISION_TIMEOUT);
+        separationFramesLeft = SEPARATION_FRAMES;
+
+        //determine separation direction
+        separationDx = x < other.getX() ? -2 : 2;
+        separationDy = y < other.getY() ? -2 : 2;
+    }
+
+    /**
+     * Collects a power-up the driver walked over, unless it is recovering from a collision.
+     *
+     * @param powerUp The power-up to collect
+     */
+    public void collect(PowerUp powerUp) {
+        if (collisionTimer != TimerWheel.NONE) return;
+
+        powerUp.applyEffect(this);
     }
 
     /**
@@ -138,7 +155,7 @@ public class Driver extends MovableEntity implements Damageable, Collidable {
      * @return true if the driver successfully entered the taxi, false otherwise
      */
     public boolean enterTaxi(Taxi taxi) {
-        if (taxi != null && !taxi.isDamaged() && position.distanceTo(taxi.getPosition()) <= 10) {
+        if (taxi != null && !taxi.isDamaged() && distanceTo(taxi) <= 10) {
             currentTaxi = taxi;
             taxi.setHasDriver(true);
             return true;
@@ -160,7 +177,7 @@ public class Driver extends MovableEntity implements Damageable, Collidable {
      * Activates invincibility for the driver.
      */
     public void activateInvincibility() {
-        invincibilityFrames = INVINCIBILITY_DURATION;
+        invincibilityTimer = timers.reschedule(invincibilityTimer, INVINCIBILITY_DURATION, invincibilityEnded);
     }
 
     //getters and setters
@@ -194,12 +211,16 @@ public class Driver extends MovableEntity implements Damageable, Collidable {
     }
 
     /**
-     * Sets the collision timeout for the driver.
+     * Sets the collision timeout for the driver, replacing any timeout already running.
      *
-     * @param amount The duration of the collision timeout in frames
+     * @param amount The duration of the collision timeout in frames, or 0 to end it
      */
     public void setCollisionTimeout(int amount) {
-        this.collisionTimeout = amount;
-
+        if (amount > 0) {
+            collisionTimer = timers.reschedule(collisionTimer, amount, collisionTimeoutEnded);
+        } else {
+            timers.cancel(collisionTimer);
+            collisionTimer = TimerWheel.NONE;
+        }
     }
 }
\ No newline at end of file
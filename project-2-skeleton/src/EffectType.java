@@ -0,0 +1,4 @@
+/**
+ * The kinds of visual effect shown when entities collide.
+ */
+public enum EffectType { SMOKE, FIRE, BLOOD }
@@ -2,50 +2,45 @@
  * Represents an enemy car in the game that can shoot fireballs.
  */
 public class EnemyCar extends Car {
-    private static final double FIREBALL_SPEED = 7.0;
-    private static final int FIREBALL_SPAWN_CHANCE = 300; //1 in 300 chance per frame
+    private final EntityPool<Fireball> fireballPool;
+    private int nextFireFrame = Integer.MAX_VALUE;
 
     /**
-     * Constructs a new EnemyCar at the specified position.
+     * Constructs a new EnemyCar at the specified position, standing still until it is reset.
      *
      * @param x The x-coordinate of the enemy car's initial position
      * @param y The y-coordinate of the enemy car's initial position
      * @param imagePath The file path to the enemy car's image
      * @param radius The collision radius of the enemy car
+     * @param speedRandom The random stream the enemy car's speeds are drawn from
+     * @param fireballPool The pool the enemy car's fireballs are taken from
+     * @param store The store that keeps the enemy car's state
      */
-    public EnemyCar(double x, double y, String imagePath, double radius) {
-        super(x, y, imagePath, radius);
+    public EnemyCar(double x, double y, String imagePath, double radius,
+                    RandomStream speedRandom, EntityPool<Fireball> fireballPool, EntityStore<EnemyCar> store) {
+        super(x, y, imagePath, radius, speedRandom, store);
+        this.fireballPool = fireballPool;
     }
 
     /**
-     * Updates the enemy car's state and potentially shoots a fireball.
-     */
-    @Override
-    public void update() {
-        super.update();
-        //shoot fireball based on 1 in 300 chance
-        if (Math.random() * FIREBALL_SPAWN_CHANCE < 1) {
-            shootFireball();
-        }
-    }
-
-    /**
-     * Creates and returns a new Fireball projectile.
+     * Shoots a fireball from the enemy car's position, reusing a pooled fireball.
      *
-     * @return A new Fireball object
+     * @return The fireball, to be released to the pool when it leaves the game
      */
     public Fireball shootFireball() {
-        return new Fireball(position.x, position.y, "res/fireball.png", 10.0, 0, FIREBALL_SPEED);
+        Fireball fireball = fireballPool.acquire();
+        fireball.reset(getX(), getY());
+        return fireball;
     }
 
     /**
-     * Handles collision with another game entity.
+     * Gets the collision type of the enemy car.
      *
-     * @param other The other entity involved in the collision
+     * @return The collision type
      */
     @Override
-    public void handleCollision(GameEntity other) {
-        super.handleCollision(other);
+    public CollisionType getCollisionType() {
+        return CollisionType.ENEMY_CAR;
     }
 
     /**
@@ -57,4 +52,23 @@ public class EnemyCar extends Car {
     public void takeDamage(double amount) {
         super.takeDamage(amount);
     }
-}
\ No newline at end of file
+
+    //getters and setters
+    /**
+     * Gets the frame on which the enemy car next shoots a fireball.
+     *
+     * @return The next fire frame
+     */
+    public int getNextFireFrame() {
+        return nextFireFrame;
+    }
+
+    /**
+     * Sets the frame on which the enemy car next shoots a fireball.
+     *
+     * @param nextFireFrame The next fire frame
+     */
+    public void setNextFireFrame(int nextFireFrame) {
+        this.nextFireFrame = nextFireFrame;
+    }
+}
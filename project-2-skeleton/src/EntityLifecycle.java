@@ -0,0 +1,200 @@
+import java.util.Arrays;
+
+/**
+ * The lifecycle of the world's dynamic entities: cars, enemy cars and fireballs.
+ * Once one of them has moved further than the despawn margin off the top or bottom of the screen,
+ * it leaves the game and returns to its pool, so entities that drive or fly away stop being updated,
+ * collision-tested and drawn. Entities still in the game but outside the viewport, widened by the
+ * cull margin, are skipped when drawing. The live, culled and despawned counts of the latest frame
+ * are kept for reporting.
+ */
+public class EntityLifecycle {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final double despawnMargin;
+    private final double cullMargin;
+    private int[] despawnedRows;
+    private Object[] leaving;
+
+    private int liveCount;
+    private int culledCount;
+    private int despawnedCount;
+    private int peakLiveCount;
+    private long totalDespawnedCount;
+
+    /**
+     * Constructs a new EntityLifecycle.
+     *
+     * @param despawnMargin The distance off screen beyond which a dynamic entity leaves the game
+     * @param cullMargin The distance off screen beyond which an entity is not drawn
+     */
+    public EntityLifecycle(double despawnMargin, double cullMargin) {
+        this.despawnMargin = despawnMargin;
+        this.cullMargin = cullMargin;
+        this.despawnedRows = new int[INITIAL_CAPACITY];
+        this.leaving = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Starts the counts for a new frame.
+     */
+    public void beginFrame() {
+        liveCount = 0;
+        culledCount = 0;
+        despawnedCount = 0;
+    }
+
+    /**
+     * Removes the entities of a store that are beyond the despawn margin, returning them to their pool,
+     * and counts the remaining entities as live or culled. The list keeps its order.
+     *
+     * @param entities The entities to sweep
+     * @param pool The pool the entities came from
+     * @param camera The camera the world is viewed through
+     * @param <T> The type of entity
+     */
+    public <T extends IndependentlyMovableEntity> void sweep(EntityStore<T> entities, EntityPool<T> pool, Camera camera) {
+        int despawned = 0;
+        int culled = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            double y = entities.get(i).getY();
+            if (isDespawned(y, camera)) {
+                if (despawned == despawnedRows.length) {
+                    despawnedRows = Arrays.copyOf(despawnedRows, despawned * 2);
+                }
+                despawnedRows[despawned++] = i;
+            } else if (isCulled(y, camera)) {
+                culled++;
+            }
+        }
+        sweepRows(entities, pool, despawnedRows, despawned, culled);
+    }
+
+    /**
+     * Removes the entities at the given positions of a store, returning them to their pool, and counts
+     * the remaining entities as live, of which the given number are culled. This is the serial half of
+     * a sweep whose entities were sorted into despawned and culled elsewhere. The list keeps its order.
+     *
+     * @param entities The entities to sweep
+     * @param pool The pool the entities came from
+     * @param rows The positions of the despawned entities, in ascending order
+     * @param despawned The number of despawned entities
+     * @param culled The number of live entities outside the drawn area
+     * @param <T> The type of entity
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends IndependentlyMovableEntity> void sweepRows(EntityStore<T> entities, EntityPool<T> pool,
+                                                                 int[] rows, int despawned, int culled) {
+        if (despawned > leaving.length) {
+            leaving = Arrays.copyOf(leaving, Math.max(despawned, leaving.length * 2));
+        }
+        //positions past the one being looked at are untouched, so rows still name the entities there
+        int kept = 0;
+        int next = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            if (next < despawned && rows[next] == i) {
+                leaving[next++] = entities.get(i);
+                continue;
+            }
+            //swapping rather than overwriting keeps every entity in the list once, as an EntityStore requires
+            entities.swap(kept++, i);
+        }
+        //despawned entities leave the game before their pool sees them
+        for (int i = entities.size() - 1; i >= kept; i--) {
+            entities.remove(i);
+        }
+        for (int i = 0; i < despawned; i++) {
+            pool.release((T) leaving[i]);
+            leaving[i] = null;
+        }
+
+        liveCount += kept;
+        culledCount += culled;
+        despawnedCount += despawned;
+        totalDespawnedCount += despawned;
+        peakLiveCount = Math.max(peakLiveCount, liveCount);
+    }
+
+    /**
+     * Checks if an entity at a world y-coordinate is beyond the despawn margin and leaves the game.
+     * Safe to call from any thread while the camera is not moving.
+     *
+     * @param y The world y-coordinate of the entity
+     * @param camera The camera the world is viewed through
+     * @return true if the entity should despawn, false otherwise
+     */
+    public boolean isDespawned(double y, Camera camera) {
+        double screenY = camera.toScreenY(y);
+        return screenY < -despawnMargin || screenY > GameWorld.WINDOW_HEIGHT + despawnMargin;
+    }
+
+    /**
+     * Checks if an entity at a world y-coordinate is outside the drawn area.
+     * Safe to call from any thread while the camera is not moving.
+     *
+     * @param y The world y-coordinate of the entity
+     * @param camera The camera the world is viewed through
+     * @return true if the entity is culled, false otherwise
+     */
+    public boolean isCulled(double y, Camera camera) {
+        double screenY = camera.toScreenY(y);
+        return screenY < -cullMargin || screenY > GameWorld.WINDOW_HEIGHT + cullMargin;
+    }
+
+    /**
+     * Checks if an entity is close enough to the viewport to be drawn.
+     *
+     * @param entity The entity
+     * @param camera The camera the world is viewed through
+     * @return true if the entity should be drawn, false otherwise
+     */
+    public boolean isVisible(GameEntity entity, Camera camera) {
+        return !isCulled(entity.getY(), camera);
+    }
+
+    //getters
+    /**
+     * Gets the number of dynamic entities in the game after the latest sweep.
+     *
+     * @return The live count
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the number of live dynamic entities outside the drawn area after the latest sweep.
+     *
+     * @return The culled count
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /**
+     * Gets the number of dynamic entities despawned by the latest sweep.
+     *
+     * @return The despawned count
+     */
+    public int getDespawnedCount() {
+        return despawnedCount;
+    }
+
+    /**
+     * Gets the highest live count reached by any frame.
+     *
+     * @return The peak live count
+     */
+    public int getPeakLiveCount() {
+        return peakLiveCount;
+    }
+
+    /**
+     * Gets the number of dynamic entities despawned since the world was created.
+     *
+     * @return The total despawned count
+     */
+    public long getTotalDespawnedCount() {
+        return totalDespawnedCount;
+    }
+}
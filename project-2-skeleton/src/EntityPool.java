@@ -0,0 +1,117 @@
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable entities of one type. Entities are acquired when they spawn and released when
+ * they leave the game, and a released entity is reset before it is handed out again, so steady
+ * spawning and despawning reuses the same objects instead of leaving them to the garbage collector.
+ * The pool is filled to its capacity up front, and holds at most that many idle entities.
+ *
+ * @param <T> The type of entity pooled
+ */
+public class EntityPool<T extends GameEntity> {
+    private final Supplier<T> factory;
+    private final int capacity;
+    private final ArrayDeque<T> idle;
+    private final Consumer<T> discarder;
+
+    private long hits;
+    private long misses;
+    private long discards;
+
+    /**
+     * Constructs a new EntityPool and fills it with idle entities, telling the owner of their state
+     * about each entity the pool drops.
+     *
+     * @param factory Creates a new entity when the pool is empty
+     * @param capacity The number of idle entities the pool holds
+     * @param discarder Called with each released entity dropped because the pool is full
+     */
+    public EntityPool(Supplier<T> factory, int capacity, Consumer<T> discarder) {
+        this.factory = factory;
+        this.capacity = capacity;
+        this.discarder = discarder;
+        this.idle = new ArrayDeque<>(Math.max(capacity, 1));
+        for (int i = 0; i < capacity; i++) {
+            idle.push(factory.get());
+        }
+    }
+
+    /**
+     * Takes an idle entity from the pool, or creates one if the pool is empty.
+     * The entity must be reset before use.
+     *
+     * @return The entity
+     */
+    public T acquire() {
+        T entity = idle.poll();
+        if (entity != null) {
+            hits++;
+            return entity;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    /**
+     * Returns an entity that has left the game to the pool. If the pool is already full,
+     * the entity is dropped instead.
+     *
+     * @param entity The entity to release
+     */
+    public void release(T entity) {
+        if (idle.size() < capacity) {
+            idle.push(entity);
+        } else {
+            discards++;
+            discarder.accept(entity);
+        }
+    }
+
+    //getters
+    /**
+     * Gets the number of acquisitions served by an idle entity.
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of acquisitions that had to create a new entity.
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of released entities dropped because the pool was full.
+     *
+     * @return The number of discards
+     */
+    public long getDiscards() {
+        return discards;
+    }
+
+    /**
+     * Gets the number of released entities waiting in the pool to be acquired again.
+     *
+     * @return The number of idle entities
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the most idle entities the pool holds, beyond which released entities are discarded.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,634 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The state of every entity of one independently moving kind, kept in parallel primitive arrays
+ * indexed by a dense row id: positions, radii, speeds, health, collision timeouts and separation.
+ * The per-frame systems for movement, timers, damage and collision run straight over the arrays,
+ * while each entity object is an adapter that reads and writes its own row, so the rest of the game
+ * keeps using cars and fireballs as before.
+ * <p>
+ * Every entity built for a store owns a row for as long as it lives, whether or not it is in the game.
+ * The store is also the list of entities in the game: rows 0 to size() - 1 hold them in list order,
+ * and the rows after them hold entities waiting in a pool. Adding an entity moves its row to the end
+ * of the list, and removing one moves its row out past the list, so the rows the systems run over
+ * are always the contiguous start of the arrays.
+ * <p>
+ * Collision timeouts are timers on the world's TimerWheel, so only the rows that are separating
+ * or whose timeout ends in a frame cost the timer system anything.
+ *
+ * @param <T> The type of entity stored
+ */
+public class EntityStore<T extends IndependentlyMovableEntity> extends AbstractList<T> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final TimerWheel timers;
+    private IndependentlyMovableEntity[] entities;
+    private double[] xs;
+    private double[] ys;
+    private double[] radii;
+    private double[] speedYs;
+    private double[] healths;
+    private int[] collisionTimers;
+    private int[] separationFramesLeft;
+    private double[] separationDxs;
+    private double[] separationDys;
+    private boolean[] colliding;
+
+    //entities in the game, at the start of the rows
+    private int size;
+    //entities with a row, in the game or not
+    private int rowCount;
+    //rows still stepping apart after a collision
+    private int separatingCount;
+    //entities whose collision timeout ended this frame, to be told in row order
+    private IndependentlyMovableEntity[] expired;
+    private int expiredCount;
+
+    /**
+     * Constructs a new, empty EntityStore.
+     *
+     * @param timers The wheel the entities' collision timeouts are scheduled on
+     */
+    public EntityStore(TimerWheel timers) {
+        this.timers = timers;
+        entities = new IndependentlyMovableEntity[INITIAL_CAPACITY];
+        xs = new double[INITIAL_CAPACITY];
+        ys = new double[INITIAL_CAPACITY];
+        radii = new double[INITIAL_CAPACITY];
+        speedYs = new double[INITIAL_CAPACITY];
+        healths = new double[INITIAL_CAPACITY];
+        collisionTimers = new int[INITIAL_CAPACITY];
+        separationFramesLeft = new int[INITIAL_CAPACITY];
+        separationDxs = new double[INITIAL_CAPACITY];
+        separationDys = new double[INITIAL_CAPACITY];
+        colliding = new boolean[INITIAL_CAPACITY];
+        expired = new IndependentlyMovableEntity[INITIAL_CAPACITY];
+    }
+
+    /*
+    method to give a newly built entity a row after the list, called from the entity's constructor
+     */
+    void register(IndependentlyMovableEntity entity, double x, double y, double radius, double speedY) {
+        if (rowCount == entities.length) {
+            grow();
+        }
+        int id = rowCount++;
+        entities[id] = entity;
+        entity.id = id;
+        xs[id] = x;
+        ys[id] = y;
+        radii[id] = radius;
+        speedYs[id] = speedY;
+        healths[id] = 0;
+        collisionTimers[id] = TimerWheel.NONE;
+        separationFramesLeft[id] = 0;
+        clearCollision(id);
+    }
+
+    /**
+     * Gives up the row of an entity that is not in the game and will never be used again,
+     * such as one dropped by a full pool.
+     *
+     * @param entity The entity to forget
+     */
+    public void unregister(T entity) {
+        if (entity.store != this || entity.id < size) {
+            throw new IllegalArgumentException("Only an entity of this store that is not in the game can be unregistered");
+        }
+        int last = rowCount - 1;
+        clearCollision(entity.id);
+        swapRows(entity.id, last);
+        entities[last] = null;
+        rowCount = last;
+        entity.id = -1;
+    }
+
+    private void grow() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        radii = Arrays.copyOf(radii, capacity);
+        speedYs = Arrays.copyOf(speedYs, capacity);
+        healths = Arrays.copyOf(healths, capacity);
+        collisionTimers = Arrays.copyOf(collisionTimers, capacity);
+        separationFramesLeft = Arrays.copyOf(separationFramesLeft, capacity);
+        separationDxs = Arrays.copyOf(separationDxs, capacity);
+        separationDys = Arrays.copyOf(separationDys, capacity);
+        colliding = Arrays.copyOf(colliding, capacity);
+    }
+
+    /*
+    method to exchange two rows, keeping each entity's id pointing at its row
+     */
+    private void swapRows(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        IndependentlyMovableEntity entity = entities[a];
+        entities[a] = entities[b];
+        entities[b] = entity;
+        entities[a].id = a;
+        entities[b].id = b;
+
+        double value = xs[a];
+        xs[a] = xs[b];
+        xs[b] = value;
+        value = ys[a];
+        ys[a] = ys[b];
+        ys[b] = value;
+        value = radii[a];
+        radii[a] = radii[b];
+        radii[b] = value;
+        value = speedYs[a];
+        speedYs[a] = speedYs[b];
+        speedYs[b] = value;
+        value = healths[a];
+        healths[a] = healths[b];
+        healths[b] = value;
+        value = separationDxs[a];
+        separationDxs[a] = separationDxs[b];
+        separationDxs[b] = value;
+        value = separationDys[a];
+        separationDys[a] = separationDys[b];
+        separationDys[b] = value;
+
+        int count = collisionTimers[a];
+        collisionTimers[a] = collisionTimers[b];
+        collisionTimers[b] = count;
+        count = separationFramesLeft[a];
+        separationFramesLeft[a] = separationFramesLeft[b];
+        separationFramesLeft[b] = count;
+
+        boolean flag = colliding[a];
+        colliding[a] = colliding[b];
+        colliding[b] = flag;
+    }
+
+    /*
+    method to move a row to another position, shifting the rows in between by one towards where it was,
+    a column at a time, and keeping each entity's id pointing at its row
+     */
+    private void moveRow(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        IndependentlyMovableEntity entity = entities[from];
+        double x = xs[from];
+        double y = ys[from];
+        double radius = radii[from];
+        double speedY = speedYs[from];
+        double health = healths[from];
+        int collisionTimer = collisionTimers[from];
+        int separationFrames = separationFramesLeft[from];
+        double separationDx = separationDxs[from];
+        double separationDy = separationDys[from];
+        boolean isColliding = colliding[from];
+
+        int source = from < to ? from + 1 : to;
+        int destination = from < to ? from : to + 1;
+        int length = Math.abs(to - from);
+        System.arraycopy(entities, source, entities, destination, length);
+        System.arraycopy(xs, source, xs, destination, length);
+        System.arraycopy(ys, source, ys, destination, length);
+        System.arraycopy(radii, source, radii, destination, length);
+        System.arraycopy(speedYs, source, speedYs, destination, length);
+        System.arraycopy(healths, source, healths, destination, length);
+        System.arraycopy(collisionTimers, source, collisionTimers, destination, length);
+        System.arraycopy(separationFramesLeft, source, separationFramesLeft, destination, length);
+        System.arraycopy(separationDxs, source, separationDxs, destination, length);
+        System.arraycopy(separationDys, source, separationDys, destination, length);
+        System.arraycopy(colliding, source, colliding, destination, length);
+
+        entities[to] = entity;
+        xs[to] = x;
+        ys[to] = y;
+        radii[to] = radius;
+        speedYs[to] = speedY;
+        healths[to] = health;
+        collisionTimers[to] = collisionTimer;
+        separationFramesLeft[to] = separationFrames;
+        separationDxs[to] = separationDx;
+        separationDys[to] = separationDy;
+        colliding[to] = isColliding;
+
+        for (int id = Math.min(from, to); id <= Math.max(from, to); id++) {
+            entities[id].id = id;
+        }
+    }
+
+    private void checkOwnRow(T entity) {
+        if (entity.store != this) {
+            throw new IllegalArgumentException("The entity belongs to another store");
+        }
+    }
+
+    //list of entities in the game
+    /**
+     * Gets the entity in the game at a position of the list.
+     *
+     * @param index The position in the list, which is also the entity's row
+     * @return The entity
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) entities[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Puts an entity of this store into the game at a position of the list, moving the entities
+     * from that position on back by one.
+     *
+     * @param index The position in the list
+     * @param entity The entity, which must not already be in the game
+     */
+    @Override
+    public void add(int index, T entity) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        checkOwnRow(entity);
+        if (entity.id < size) {
+            throw new IllegalArgumentException("The entity is already in the game");
+        }
+        swapRows(entity.id, size);
+        moveRow(size, index);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Replaces the entity at a position of the list with one not in the game. The entity replaced
+     * leaves the game, keeping its row for when it is added again, but its collision is over.
+     *
+     * @param index The position in the list
+     * @param entity The entity to put there, which must not already be in the game elsewhere
+     * @return The entity that was there
+     */
+    @Override
+    public T set(int index, T entity) {
+        T previous = get(index);
+        checkOwnRow(entity);
+        if (entity.id == index) {
+            return previous;
+        }
+        if (entity.id < size) {
+            throw new IllegalArgumentException("The entity is already in the game, swap(int, int) moves it");
+        }
+        clearCollision(index);
+        swapRows(entity.id, index);
+        return previous;
+    }
+
+    /**
+     * Exchanges the entities at two positions of the list, each keeping its state.
+     *
+     * @param i The position of one entity
+     * @param j The position of the other entity
+     */
+    public void swap(int i, int j) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        if (j < 0 || j >= size) {
+            throw new IndexOutOfBoundsException("Index " + j + " out of bounds for size " + size);
+        }
+        swapRows(i, j);
+    }
+
+    /**
+     * Takes the entity at a position of the list out of the game, moving the entities after it
+     * forward by one. Its row is kept for when it is added again, but its collision is over.
+     *
+     * @param index The position in the list
+     * @return The entity removed
+     */
+    @Override
+    public T remove(int index) {
+        T entity = get(index);
+        clearCollision(index);
+        moveRow(index, size - 1);
+        size--;
+        modCount++;
+        return entity;
+    }
+
+    /**
+     * Takes an entity out of the game as remove(int) does, finding it by its row rather than by
+     * iterating the list.
+     *
+     * @param o The entity to remove
+     * @return true if the entity was in the game, false otherwise
+     */
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Takes every entity out of the game. Their rows are kept for when they are added again,
+     * but their collisions are over.
+     */
+    @Override
+    public void clear() {
+        for (int id = 0; id < size; id++) {
+            clearCollision(id);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof IndependentlyMovableEntity) {
+            IndependentlyMovableEntity entity = (IndependentlyMovableEntity) o;
+            if (entity.store == this && entity.id >= 0 && entity.id < size) {
+                return entity.id;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    //movement system
+    /**
+     * Moves every car in the game that is not recovering from a collision: it follows the camera,
+     * then drives at its own speed twice, once in its own update and once more for the world,
+     * as traffic always has.
+     *
+     * @param scrollDistance The distance the camera scrolled this frame
+     */
+    public void moveTraffic(double scrollDistance) {
+        moveTraffic(0, size, scrollDistance);
+    }
+
+    /**
+     * Moves the cars of a range of rows as moveTraffic(double) does. Only those rows are touched,
+     * so disjoint ranges can be moved at the same time.
+     *
+     * @param from The first row
+     * @param to The row after the last
+     * @param scrollDistance The distance the camera scrolled this frame
+     */
+    public void moveTraffic(int from, int to, double scrollDistance) {
+        for (int id = from; id < to; id++) {
+            if (!colliding[id]) {
+                double y = ys[id] - scrollDistance;
+                y -= speedYs[id];
+                ys[id] = y - speedYs[id];
+            }
+        }
+    }
+
+    /**
+     * Moves every projectile in the game at its own speed. Those already in flight before this frame
+     * also follow the camera, while those just shot start from a car that has already followed it.
+     *
+     * @param scrollDistance The distance the camera scrolled this frame
+     * @param followingCount The number of projectiles, from the start of the list, that follow the camera
+     */
+    public void moveProjectiles(double scrollDistance, int followingCount) {
+        moveProjectiles(0, size, scrollDistance, followingCount);
+    }
+
+    /**
+     * Moves the projectiles of a range of rows as moveProjectiles(double, int) does. Only those rows
+     * are touched, so disjoint ranges can be moved at the same time.
+     *
+     * @param from The first row
+     * @param to The row after the last
+     * @param scrollDistance The distance the camera scrolled this frame
+     * @param followingCount The number of projectiles, from the start of the list, that follow the camera
+     */
+    public void moveProjectiles(int from, int to, double scrollDistance, int followingCount) {
+        for (int id = from; id < to; id++) {
+            double y = id < followingCount ? ys[id] - scrollDistance : ys[id];
+            ys[id] = y - speedYs[id];
+        }
+    }
+
+    //timer system
+    /**
+     * Steps apart the entities in the game still separating after a collision, then tells each
+     * entity whose collision timeout ended this frame, in list order. Costs nothing while no entity
+     * is separating or coming out of a timeout.
+     */
+    public void updateTimers() {
+        if (separatingCount > 0) {
+            separatingCount -= stepSeparations(0, size);
+        }
+        endExpiredTimeouts();
+    }
+
+    /**
+     * Tells each entity in the game whose collision timeout ended this frame, in list order.
+     */
+    public void endExpiredTimeouts() {
+        //timers expire in the order they were set, so the entities are put back in list order
+        for (int i = 1; i < expiredCount; i++) {
+            IndependentlyMovableEntity entity = expired[i];
+            int j = i - 1;
+            while (j >= 0 && expired[j].id > entity.id) {
+                expired[j + 1] = expired[j];
+                j--;
+            }
+            expired[j + 1] = entity;
+        }
+        for (int i = 0; i < expiredCount; i++) {
+            IndependentlyMovableEntity entity = expired[i];
+            expired[i] = null;
+            if (entity.id >= 0 && entity.id < size) {
+                entity.onCollisionTimeoutEnded();
+            }
+        }
+        expiredCount = 0;
+    }
+
+    /**
+     * Steps apart the separating entities of a range of rows. Only those rows are touched, so
+     * disjoint ranges can be stepped at the same time, after which the separations that ended
+     * are handed to separationsEnded(int).
+     *
+     * @param from The first row
+     * @param to The row after the last
+     * @return The number of entities that finished separating
+     */
+    public int stepSeparations(int from, int to) {
+        int ended = 0;
+        for (int id = from; id < to; id++) {
+            if (separationFramesLeft[id] > 0) {
+                xs[id] += separationDxs[id];
+                ys[id] += separationDys[id];
+                if (--separationFramesLeft[id] == 0) {
+                    ended++;
+                }
+            }
+        }
+        return ended;
+    }
+
+    /**
+     * Records that entities stepped by stepSeparations(int, int) have finished separating.
+     *
+     * @param ended The number of entities that finished separating
+     */
+    public void separationsEnded(int ended) {
+        separatingCount -= ended;
+    }
+
+    /*
+    method to move a row one step apart from what it hit, if it is still separating
+     */
+    void stepSeparation(int id) {
+        separatingCount -= stepSeparations(id, id + 1);
+    }
+
+    /*
+    method to note that an entity's collision timer has expired, called back by the timer wheel
+     */
+    void onCollisionTimerExpired(IndependentlyMovableEntity entity) {
+        collisionTimers[entity.id] = TimerWheel.NONE;
+        if (expiredCount == expired.length) {
+            expired = Arrays.copyOf(expired, expiredCount * 2);
+        }
+        expired[expiredCount++] = entity;
+    }
+
+    /*
+    method to start a row's collision timeout, stopping it to move apart for a number of frames
+     */
+    void startCollision(int id, int timeout, int separationFrames, double separationDx, double separationDy) {
+        collisionTimers[id] = timers.reschedule(collisionTimers[id], timeout, entities[id].collisionTimerExpired);
+        if (separationFramesLeft[id] > 0) {
+            separatingCount--;
+        }
+        separationFramesLeft[id] = separationFrames;
+        if (separationFrames > 0) {
+            separatingCount++;
+        }
+        separationDxs[id] = separationDx;
+        separationDys[id] = separationDy;
+        colliding[id] = true;
+    }
+
+    /*
+    method to cancel a row's collision timeout and separation
+     */
+    void clearCollision(int id) {
+        timers.cancel(collisionTimers[id]);
+        collisionTimers[id] = TimerWheel.NONE;
+        if (separationFramesLeft[id] > 0) {
+            separatingCount--;
+        }
+        separationFramesLeft[id] = 0;
+        separationDxs[id] = 0;
+        separationDys[id] = 0;
+        colliding[id] = false;
+    }
+
+    //damage system
+    /*
+    method to take damage from a row's health
+     */
+    void takeDamage(int id, double amount) {
+        healths[id] -= amount;
+    }
+
+    //getters and setters
+    double getX(int id) {
+        return xs[id];
+    }
+
+    double getY(int id) {
+        return ys[id];
+    }
+
+    void setPosition(int id, double x, double y) {
+        xs[id] = x;
+        ys[id] = y;
+    }
+
+    double getRadius(int id) {
+        return radii[id];
+    }
+
+    double getSpeedY(int id) {
+        return speedYs[id];
+    }
+
+    void setSpeedY(int id, double speedY) {
+        speedYs[id] = speedY;
+    }
+
+    double getHealth(int id) {
+        return healths[id];
+    }
+
+    void setHealth(int id, double health) {
+        healths[id] = health;
+    }
+
+    boolean isInCollisionTimeout(int id) {
+        return collisionTimers[id] != TimerWheel.NONE;
+    }
+
+    boolean isColliding(int id) {
+        return colliding[id];
+    }
+
+    void setColliding(int id, boolean isColliding) {
+        colliding[id] = isColliding;
+    }
+
+    /**
+     * Gets the x-coordinates of every row, for systems that run over the entities in the game.
+     * Only the first size() entries are in the game, and the array is replaced as the store grows.
+     *
+     * @return The x-coordinate column
+     */
+    double[] getXs() {
+        return xs;
+    }
+
+    double[] getYs() {
+        return ys;
+    }
+
+    double[] getRadii() {
+        return radii;
+    }
+
+    /**
+     * Checks if any entity is still stepping apart after a collision.
+     *
+     * @return true if an entity is separating, false otherwise
+     */
+    public boolean isSeparating() {
+        return separatingCount > 0;
+    }
+}
@@ -1,5 +1,3 @@
-import bagel.util.Point;
-
 /**
  * Represents a fireball projectile shot by enemy cars.
  */
@@ -15,9 +13,21 @@ public class Fireball extends IndependentlyMovableEntity implements Collidable,
      * @param radius The collision radius of the fireball
      * @param speedX The horizontal speed of the fireball
      * @param speedY The vertical speed of the fireball
+     * @param store The store that keeps the fireball's state
      */
-    public Fireball(double x, double y, String imagePath, double radius, double speedX, double speedY) {
-        super(x, y, imagePath, radius, speedX, speedY);
+    public Fireball(double x, double y, String imagePath, double radius, double speedX, double speedY,
+                    EntityStore<Fireball> store) {
+        super(x, y, imagePath, radius, speedX, speedY, store);
+    }
+
+    /**
+     * Prepares a pooled fireball to be shot again from a new position.
+     *
+     * @param x The x-coordinate to shoot from
+     * @param y The y-coordinate to shoot from
+     */
+    public void reset(double x, double y) {
+        setPosition(x, y);
     }
 
     /**
@@ -25,7 +35,7 @@ public class Fireball extends IndependentlyMovableEntity implements Collidable,
      */
     @Override
     public void moveIndependently() {
-        position = new Point(position.x, position.y - speedY);
+        setPosition(getX(), getY() - getSpeedY());
     }
 
     /**
@@ -36,23 +46,23 @@ public class Fireball extends IndependentlyMovableEntity implements Collidable,
     }
 
     /**
-     * Draws the fireball on the game screen.
+     * Draws the fireball into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void draw() {
-        image.draw(position.x, position.y);
+    public void draw(FrameSnapshot frame) {
+        frame.addSprite(this, imagePath, getX(), getY());
     }
 
     /**
-     * Handles collision with another game entity.
+     * Gets the collision type of the fireball.
      *
-     * @param other The other entity involved in the collision
+     * @return The collision type
      */
     @Override
-    public void handleCollision(GameEntity other) {
-        if (other instanceof Damageable) {
-            ((Damageable) other).takeDamage(DAMAGE);
-        }
+    public CollisionType getCollisionType() {
+        return CollisionType.FIREBALL;
     }
 
     /**
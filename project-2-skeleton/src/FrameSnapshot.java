@@ -0,0 +1,437 @@
+import bagel.Font;
+import bagel.Image;
+
+import java.util.Arrays;
+
+/**
+ * Everything drawn for one simulated frame, recorded on the simulation thread and drawn on the
+ * render thread. Sprites keep world coordinates together with where they were on the frame
+ * before, so the renderer can draw the world part of the way between two frames.
+ * A snapshot is only recorded while it is the back buffer of a TripleBuffer, so once published
+ * it stays unchanged until the renderer has moved on to a newer one.
+ */
+public class FrameSnapshot {
+    private static final int INITIAL_CAPACITY = 64;
+    //anything that moved further than this in one frame was placed rather than moved, and is not interpolated
+    private static final double MAX_INTERPOLATED_DISTANCE = 50;
+
+    //sprites, with the entity that drew each one so it can be matched to its previous position
+    private int spriteCount;
+    private Object[] owners;
+    private String[] imagePaths;
+    private double[] xs;
+    private double[] ys;
+    private double[] previousXs;
+    private double[] previousYs;
+
+    //labels, each drawn beside a sprite
+    private int labelCount;
+    private int[] labelSprites;
+    private String[] labelFontPaths;
+    private int[] labelFontSizes;
+    private String[] labelFormats;
+    private double[] labelValues;
+    private double[] labelOffsetXs;
+
+    //view
+    private int frame;
+    private long tickNanos;
+    private WeatherCondition.WeatherType weather;
+    private double cameraOffsetY;
+    private double previousCameraOffsetY;
+    private double backgroundY1;
+    private double previousBackgroundY1;
+    private double backgroundY2;
+    private double previousBackgroundY2;
+
+    //hud
+    private double totalScore;
+    private double taxiHealth;
+    private double driverHealth;
+    private double passengerHealth;
+    private boolean coinPowerActive;
+    private int coinPowerFrames;
+    private boolean hasCurrentTrip;
+    private double tripExpectedEarnings;
+    private int tripPriority;
+    private boolean hasLastTrip;
+    private double lastTripExpectedEarnings;
+    private int lastTripPriority;
+    private double lastTripPenalty;
+    private boolean gameOver;
+    private boolean win;
+
+    /**
+     * Constructs a new, empty FrameSnapshot.
+     */
+    public FrameSnapshot() {
+        owners = new Object[INITIAL_CAPACITY];
+        imagePaths = new String[INITIAL_CAPACITY];
+        xs = new double[INITIAL_CAPACITY];
+        ys = new double[INITIAL_CAPACITY];
+        previousXs = new double[INITIAL_CAPACITY];
+        previousYs = new double[INITIAL_CAPACITY];
+        labelSprites = new int[INITIAL_CAPACITY];
+        labelFontPaths = new String[INITIAL_CAPACITY];
+        labelFontSizes = new int[INITIAL_CAPACITY];
+        labelFormats = new String[INITIAL_CAPACITY];
+        labelValues = new double[INITIAL_CAPACITY];
+        labelOffsetXs = new double[INITIAL_CAPACITY];
+        frame = -1;
+    }
+
+    /**
+     * Records the current frame of a world, and matches each sprite to its position in the
+     * snapshot recorded before it.
+     *
+     * @param world The world to record
+     * @param tickNanos The time the frame was due, from System.nanoTime()
+     * @param previous The snapshot of the frame before, or null if this is the first frame of a game
+     */
+    public void record(GameWorld world, long tickNanos, FrameSnapshot previous) {
+        this.frame = world.getCurrentFrame();
+        this.tickNanos = tickNanos;
+        Arrays.fill(owners, 0, spriteCount, null);
+        spriteCount = 0;
+        labelCount = 0;
+        world.draw(this);
+
+        weather = world.getCurrentWeather();
+        cameraOffsetY = world.getCamera().getOffsetY();
+        backgroundY1 = world.getBackgroundY1();
+        backgroundY2 = world.getBackgroundY2();
+
+        Taxi taxi = world.getTaxi();
+        Passenger currentPassenger = taxi.getCurrentPassenger();
+        totalScore = world.getTotalScore();
+        taxiHealth = taxi.getHealth();
+        driverHealth = world.getDriver().getHealth();
+        passengerHealth = world.getMinPassengerHealth();
+        coinPowerActive = taxi.hasCoinPower();
+        coinPowerFrames = taxi.getCoinPowerFrames();
+        hasCurrentTrip = currentPassenger != null;
+        if (hasCurrentTrip) {
+            tripExpectedEarnings = currentPassenger.calculateExpectedEarnings();
+            tripPriority = currentPassenger.getPriority();
+        }
+        hasLastTrip = world.hasLastTrip();
+        if (hasLastTrip) {
+            lastTripExpectedEarnings = world.getLastTripExpectedEarnings();
+            lastTripPriority = world.getLastTripPriority();
+            lastTripPenalty = world.getLastTripPenalty();
+        }
+        gameOver = world.isGameOver();
+        win = world.isWin();
+
+        matchPrevious(previous);
+    }
+
+    /**
+     * Adds a sprite drawn by an entity. Called from the entity's draw method.
+     *
+     * @param owner The entity drawing the sprite
+     * @param imagePath The file path to the sprite's image
+     * @param x The world x-coordinate of the sprite's centre
+     * @param y The world y-coordinate of the sprite's centre
+     */
+    public void addSprite(Object owner, String imagePath, double x, double y) {
+        if (spriteCount == owners.length) {
+            int capacity = spriteCount * 2;
+            owners = Arrays.copyOf(owners, capacity);
+            imagePaths = Arrays.copyOf(imagePaths, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            previousXs = Arrays.copyOf(previousXs, capacity);
+            previousYs = Arrays.copyOf(previousYs, capacity);
+        }
+        owners[spriteCount] = owner;
+        imagePaths[spriteCount] = imagePath;
+        xs[spriteCount] = x;
+        ys[spriteCount] = y;
+        spriteCount++;
+    }
+
+    /**
+     * Adds a number drawn beside the last sprite added, moving with it.
+     *
+     * @param fontPath The file path to the label's font
+     * @param fontSize The size of the label's font
+     * @param format The format of the number, as for String.format
+     * @param value The number to show
+     * @param offsetX The horizontal distance from the sprite's centre to the start of the label
+     */
+    public void addLabel(String fontPath, int fontSize, String format, double value, double offsetX) {
+        if (labelCount == labelSprites.length) {
+            int capacity = labelCount * 2;
+            labelSprites = Arrays.copyOf(labelSprites, capacity);
+            labelFontPaths = Arrays.copyOf(labelFontPaths, capacity);
+            labelFontSizes = Arrays.copyOf(labelFontSizes, capacity);
+            labelFormats = Arrays.copyOf(labelFormats, capacity);
+            labelValues = Arrays.copyOf(labelValues, capacity);
+            labelOffsetXs = Arrays.copyOf(labelOffsetXs, capacity);
+        }
+        labelSprites[labelCount] = spriteCount - 1;
+        labelFontPaths[labelCount] = fontPath;
+        labelFontSizes[labelCount] = fontSize;
+        labelFormats[labelCount] = format;
+        labelValues[labelCount] = value;
+        labelOffsetXs[labelCount] = offsetX;
+        labelCount++;
+    }
+
+    /**
+     * Draws the sprites and labels part of the way from the frame before to this one.
+     * Called from the render thread only.
+     *
+     * @param alpha How far to draw between the frame before, at 0, and this frame, at 1
+     */
+    public void drawSprites(double alpha) {
+        double offsetY = interpolate(previousCameraOffsetY, cameraOffsetY, alpha);
+        for (int i = 0; i < spriteCount; i++) {
+            Image image = AssetRegistry.getImage(imagePaths[i]);
+            image.draw(getSpriteX(i, alpha), getSpriteY(i, alpha) + offsetY);
+        }
+        for (int i = 0; i < labelCount; i++) {
+            int sprite = labelSprites[i];
+            Font font = AssetRegistry.getFont(labelFontPaths[i], labelFontSizes[i]);
+            font.drawString(String.format(labelFormats[i], labelValues[i]),
+                    getSpriteX(sprite, alpha) + labelOffsetXs[i], getSpriteY(sprite, alpha) + offsetY);
+        }
+    }
+
+    /*
+    method to find where each sprite was in the previous snapshot
+    entity lists keep their order between frames, so a forward scan finds each owner in turn
+     */
+    private void matchPrevious(FrameSnapshot previous) {
+        if (previous == null) {
+            System.arraycopy(xs, 0, previousXs, 0, spriteCount);
+            System.arraycopy(ys, 0, previousYs, 0, spriteCount);
+            previousCameraOffsetY = cameraOffsetY;
+            previousBackgroundY1 = backgroundY1;
+            previousBackgroundY2 = backgroundY2;
+            return;
+        }
+        int cursor = 0;
+        for (int i = 0; i < spriteCount; i++) {
+            previousXs[i] = xs[i];
+            previousYs[i] = ys[i];
+            if (owners[i] == null) {
+                continue;
+            }
+            for (int j = cursor; j < previous.spriteCount; j++) {
+                if (previous.owners[j] == owners[i]) {
+                    if (Math.abs(previous.xs[j] - xs[i]) <= MAX_INTERPOLATED_DISTANCE
+                            && Math.abs(previous.ys[j] - ys[i]) <= MAX_INTERPOLATED_DISTANCE) {
+                        previousXs[i] = previous.xs[j];
+                        previousYs[i] = previous.ys[j];
+                    }
+                    cursor = j + 1;
+                    break;
+                }
+            }
+        }
+        previousCameraOffsetY = nearPrevious(previous.cameraOffsetY, cameraOffsetY);
+        previousBackgroundY1 = nearPrevious(previous.backgroundY1, backgroundY1);
+        previousBackgroundY2 = nearPrevious(previous.backgroundY2, backgroundY2);
+    }
+
+    private static double nearPrevious(double previous, double current) {
+        return Math.abs(previous - current) <= MAX_INTERPOLATED_DISTANCE ? previous : current;
+    }
+
+    private static double interpolate(double previous, double current, double alpha) {
+        return previous + (current - previous) * alpha;
+    }
+
+    private double getSpriteX(int sprite, double alpha) {
+        return interpolate(previousXs[sprite], xs[sprite], alpha);
+    }
+
+    private double getSpriteY(int sprite, double alpha) {
+        return interpolate(previousYs[sprite], ys[sprite], alpha);
+    }
+
+    //getters
+    /**
+     * Gets the number of the frame recorded, or -1 if nothing has been recorded yet.
+     *
+     * @return The frame number
+     */
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Gets the time the frame was due, from System.nanoTime().
+     *
+     * @return The frame time in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Gets the weather during the frame.
+     *
+     * @return The weather
+     */
+    public WeatherCondition.WeatherType getWeather() {
+        return weather;
+    }
+
+    /**
+     * Gets the screen y-coordinate of the first scrolling background tile, part of the way from the frame before.
+     *
+     * @param alpha How far to go between the frame before, at 0, and this frame, at 1
+     * @return The background y-coordinate
+     */
+    public double getBackgroundY1(double alpha) {
+        return interpolate(previousBackgroundY1, backgroundY1, alpha);
+    }
+
+    /**
+     * Gets the screen y-coordinate of the second scrolling background tile, part of the way from the frame before.
+     *
+     * @param alpha How far to go between the frame before, at 0, and this frame, at 1
+     * @return The background y-coordinate
+     */
+    public double getBackgroundY2(double alpha) {
+        return interpolate(previousBackgroundY2, backgroundY2, alpha);
+    }
+
+    /**
+     * Gets the total score earned so far.
+     *
+     * @return The total score
+     */
+    public double getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * Gets the health of the taxi in play.
+     *
+     * @return The taxi's health
+     */
+    public double getTaxiHealth() {
+        return taxiHealth;
+    }
+
+    /**
+     * Gets the health of the driver.
+     *
+     * @return The driver's health
+     */
+    public double getDriverHealth() {
+        return driverHealth;
+    }
+
+    /**
+     * Gets the passenger health shown on the HUD, as from GameWorld.getMinPassengerHealth().
+     *
+     * @return The passenger health
+     */
+    public double getPassengerHealth() {
+        return passengerHealth;
+    }
+
+    /**
+     * Checks if the taxi has an active coin power.
+     *
+     * @return true if the coin power is active, false otherwise
+     */
+    public boolean hasCoinPower() {
+        return coinPowerActive;
+    }
+
+    /**
+     * Gets the number of frames the coin power has been active for.
+     *
+     * @return The coin power frame count
+     */
+    public int getCoinPowerFrames() {
+        return coinPowerFrames;
+    }
+
+    /**
+     * Checks if a passenger is riding in the taxi.
+     *
+     * @return true if a trip is in progress, false otherwise
+     */
+    public boolean hasCurrentTrip() {
+        return hasCurrentTrip;
+    }
+
+    /**
+     * Gets the expected earnings of the trip in progress, if hasCurrentTrip().
+     *
+     * @return The expected earnings
+     */
+    public double getTripExpectedEarnings() {
+        return tripExpectedEarnings;
+    }
+
+    /**
+     * Gets the priority of the passenger riding in the taxi, if hasCurrentTrip().
+     *
+     * @return The passenger's priority
+     */
+    public int getTripPriority() {
+        return tripPriority;
+    }
+
+    /**
+     * Checks if a trip has been completed in this game.
+     *
+     * @return true if there is a last trip to show, false otherwise
+     */
+    public boolean hasLastTrip() {
+        return hasLastTrip;
+    }
+
+    /**
+     * Gets the expected earnings of the last completed trip, if hasLastTrip().
+     *
+     * @return The expected earnings
+     */
+    public double getLastTripExpectedEarnings() {
+        return lastTripExpectedEarnings;
+    }
+
+    /**
+     * Gets the priority of the passenger of the last completed trip, if hasLastTrip().
+     *
+     * @return The passenger's priority
+     */
+    public int getLastTripPriority() {
+        return lastTripPriority;
+    }
+
+    /**
+     * Gets the penalty of the last completed trip, if hasLastTrip().
+     *
+     * @return The penalty
+     */
+    public double getLastTripPenalty() {
+        return lastTripPenalty;
+    }
+
+    /**
+     * Checks if the game was over by the frame.
+     *
+     * @return true if the game is over, false otherwise
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Checks if the game was won by the frame.
+     *
+     * @return true if the game is won, false otherwise
+     */
+    public boolean isWin() {
+        return win;
+    }
+}
@@ -0,0 +1,620 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The game settings from app.properties, parsed and validated once at startup.
+ * All values are exposed as immutable fields so gameplay code never looks up or parses
+ * a property while the game is running.
+ */
+public final class GameConfig {
+    //window and shared resources
+    public final int windowWidth;
+    public final int windowHeight;
+    public final String fontPath;
+
+    //background images
+    public final String backgroundSunny;
+    public final String backgroundRaining;
+    public final String backgroundPlayerInfo;
+    public final String backgroundHome;
+    public final String backgroundGameEnd;
+
+    //gameplay
+    public final String objectsFile;
+    public final String weatherFile;
+    public final double target;
+    public final String targetText;
+    public final int maxFrames;
+    public final double activationMargin;
+    public final double despawnMargin;
+    public final double cullMargin;
+    public final boolean hasRandomSeed;
+    public final long randomSeed;
+
+    //object pools
+    public final int fireballPoolSize;
+    public final int carPoolSize;
+    public final int enemyCarPoolSize;
+
+    //particles
+    public final int particleBudget;
+    public final double particleCoalesceDistance;
+
+    //spawning
+    public final SpawnConfig otherCarSpawn;
+    public final SpawnConfig enemyCarSpawn;
+    public final SpawnConfig fireballSpawn;
+    public final double spawnClearance;
+    public final int spawnRetries;
+    public final int spawnDeferFrames;
+
+    //simulation thread
+    public final int simulationTicksPerSecond;
+    public final int simulationMaxCatchUpTicks;
+
+    //parallel update
+    public final int parallelUpdateThreshold;
+    public final int parallelUpdateChunkSize;
+
+    //parallel narrowphase
+    public final int parallelCollisionThreshold;
+    public final int collisionParallelism;
+
+    //road lanes
+    public final int laneCenter1;
+    public final int laneCenter2;
+    public final int laneCenter3;
+
+    //trip fares
+    public final double tripRatePerY;
+    public final double tripRatePriority1;
+    public final double tripRatePriority2;
+    public final double tripRatePriority3;
+    public final double tripPenaltyPerY;
+
+    //screens and entities
+    public final ScreenConfig screens;
+    public final HudConfig hud;
+    public final TaxiConfig taxi;
+    public final CarConfig otherCar;
+    public final CarConfig enemyCar;
+    public final FireballConfig fireball;
+    public final EffectConfig smoke;
+    public final EffectConfig fire;
+    public final EffectConfig blood;
+    public final PassengerConfig passenger;
+    public final DriverConfig driver;
+    public final SpriteConfig tripEndFlag;
+    public final PowerUpConfig invinciblePower;
+    public final PowerUpConfig coin;
+
+    private GameConfig(Reader reader) {
+        windowWidth = reader.positiveInt("window.width");
+        windowHeight = reader.positiveInt("window.height");
+        fontPath = reader.file("font");
+
+        backgroundSunny = reader.file("backgroundImage.sunny");
+        backgroundRaining = reader.file("backgroundImage.raining");
+        backgroundPlayerInfo = reader.file("backgroundImage.playerInfo");
+        backgroundHome = reader.file("backgroundImage.home");
+        backgroundGameEnd = reader.file("backgroundImage.gameEnd");
+
+        objectsFile = reader.file("gamePlay.objectsFile");
+        weatherFile = reader.file("gamePlay.weatherFile");
+        target = reader.nonNegativeDouble("gamePlay.target");
+        targetText = reader.string("gamePlay.target");
+        maxFrames = reader.positiveInt("gamePlay.maxFrames");
+        activationMargin = reader.nonNegativeDouble("gamePlay.activationMargin");
+        despawnMargin = reader.nonNegativeDouble("gamePlay.despawnMargin");
+        cullMargin = reader.nonNegativeDouble("gamePlay.cullMargin");
+        reader.requireOrdered("gamePlay.cullMargin", cullMargin, "gamePlay.despawnMargin", despawnMargin);
+        hasRandomSeed = reader.has("gamePlay.randomSeed");
+        randomSeed = hasRandomSeed ? reader.longValue("gamePlay.randomSeed") : 0;
+
+        fireballPoolSize = reader.nonNegativeInt("pool.fireball.size");
+        carPoolSize = reader.nonNegativeInt("pool.otherCar.size");
+        enemyCarPoolSize = reader.nonNegativeInt("pool.enemyCar.size");
+
+        particleBudget = reader.nonNegativeInt("particles.budget");
+        particleCoalesceDistance = reader.nonNegativeDouble("particles.coalesceDistance");
+
+        otherCarSpawn = new SpawnConfig(reader, "spawn.otherCar.interval");
+        enemyCarSpawn = new SpawnConfig(reader, "spawn.enemyCar.interval");
+        fireballSpawn = new SpawnConfig(reader, "spawn.fireball.interval");
+        spawnClearance = reader.nonNegativeDouble("spawn.clearance");
+        spawnRetries = reader.nonNegativeInt("spawn.retries");
+        spawnDeferFrames = reader.nonNegativeInt("spawn.deferFrames");
+
+        simulationTicksPerSecond = reader.positiveInt("simulation.ticksPerSecond");
+        simulationMaxCatchUpTicks = reader.positiveInt("simulation.maxCatchUpTicks");
+
+        parallelUpdateThreshold = reader.positiveInt("update.parallelThreshold");
+        parallelUpdateChunkSize = reader.positiveInt("update.chunkSize");
+
+        parallelCollisionThreshold = reader.positiveInt("collision.parallelThreshold");
+        collisionParallelism = reader.positiveInt("collision.parallelism");
+
+        laneCenter1 = reader.nonNegativeInt("roadLaneCenter1");
+        laneCenter2 = reader.nonNegativeInt("roadLaneCenter2");
+        laneCenter3 = reader.nonNegativeInt("roadLaneCenter3");
+
+        tripRatePerY = reader.nonNegativeDouble("trip.rate.perY");
+        tripRatePriority1 = reader.nonNegativeDouble("trip.rate.priority1");
+        tripRatePriority2 = reader.nonNegativeDouble("trip.rate.priority2");
+        tripRatePriority3 = reader.nonNegativeDouble("trip.rate.priority3");
+        tripPenaltyPerY = reader.nonNegativeDouble("trip.penalty.perY");
+
+        screens = new ScreenConfig(reader);
+        hud = new HudConfig(reader);
+        taxi = new TaxiConfig(reader);
+        otherCar = new CarConfig(reader, "gameObjects.otherCar");
+        enemyCar = new CarConfig(reader, "gameObjects.enemyCar");
+        fireball = new FireballConfig(reader);
+        smoke = new EffectConfig(reader, "gameObjects.smoke");
+        fire = new EffectConfig(reader, "gameObjects.fire");
+        blood = new EffectConfig(reader, "gameObjects.blood");
+        passenger = new PassengerConfig(reader);
+        driver = new DriverConfig(reader);
+        tripEndFlag = new SpriteConfig(reader, "gameObjects.tripEndFlag");
+        invinciblePower = new PowerUpConfig(reader, "gameObjects.invinciblePower");
+        coin = new PowerUpConfig(reader, "gameObjects.coin");
+    }
+
+    /**
+     * Compiles and validates the game settings.
+     *
+     * @param gameProps Properties read from app.properties
+     * @return The compiled configuration
+     * @throws IllegalArgumentException if a setting is missing or invalid
+     */
+    public static GameConfig fromProperties(Properties gameProps) {
+        return new GameConfig(new Reader(gameProps));
+    }
+
+    /**
+     * Gets the path of every image the game can draw.
+     *
+     * @return The image paths
+     */
+    public List<String> getImagePaths() {
+        List<String> paths = new ArrayList<>(List.of(
+                backgroundSunny, backgroundRaining, backgroundPlayerInfo, backgroundHome, backgroundGameEnd,
+                taxi.image, taxi.damagedImage, enemyCar.image, fireball.image,
+                smoke.image, fire.image, blood.image, passenger.image, driver.image,
+                tripEndFlag.image, invinciblePower.image, coin.image));
+        for (int type = 1; type <= otherCar.types; type++) {
+            paths.add(otherCar.getImage(type));
+        }
+        return paths;
+    }
+
+    /**
+     * Gets every font size the game draws text with.
+     *
+     * @return The font sizes
+     */
+    public int[] getFontSizes() {
+        return new int[]{screens.titleFontSize, screens.instructionFontSize, screens.playerInfoFontSize,
+                screens.statusFontSize, screens.scoresFontSize, hud.fontSize, passenger.fontSize};
+    }
+
+    /**
+     * Settings for the home, player info and game end screens.
+     */
+    public static final class ScreenConfig {
+        public final int titleFontSize;
+        public final double titleY;
+        public final int instructionFontSize;
+        public final double instructionY;
+        public final int playerInfoFontSize;
+        public final double startY;
+        public final double playerNameInputY;
+        public final double playerNameY;
+        public final int statusFontSize;
+        public final double statusY;
+        public final int scoresFontSize;
+        public final double scoresY;
+        public final String scoresFile;
+
+        private ScreenConfig(Reader reader) {
+            titleFontSize = reader.positiveInt("home.title.fontSize");
+            titleY = reader.nonNegativeDouble("home.title.y");
+            instructionFontSize = reader.positiveInt("home.instruction.fontSize");
+            instructionY = reader.nonNegativeDouble("home.instruction.y");
+            playerInfoFontSize = reader.positiveInt("playerInfo.fontSize");
+            startY = reader.nonNegativeDouble("playerInfo.start.y");
+            playerNameInputY = reader.nonNegativeDouble("playerInfo.playerNameInput.y");
+            playerNameY = reader.nonNegativeDouble("playerInfo.playerName.y");
+            statusFontSize = reader.positiveInt("gameEnd.status.fontSize");
+            statusY = reader.nonNegativeDouble("gameEnd.status.y");
+            scoresFontSize = reader.positiveInt("gameEnd.scores.fontSize");
+            scoresY = reader.nonNegativeDouble("gameEnd.scores.y");
+            scoresFile = reader.string("gameEnd.scoresFile");
+        }
+    }
+
+    /**
+     * Positions and font size of the gameplay information display.
+     */
+    public static final class HudConfig {
+        public final int fontSize;
+        public final double maxFramesX;
+        public final double maxFramesY;
+        public final double targetX;
+        public final double targetY;
+        public final double earningsX;
+        public final double earningsY;
+        public final double passengerHealthX;
+        public final double passengerHealthY;
+        public final double driverHealthX;
+        public final double driverHealthY;
+        public final double taxiHealthX;
+        public final double taxiHealthY;
+        public final double coinX;
+        public final double coinY;
+        public final double tripInfoX;
+        public final double tripInfoY;
+
+        private HudConfig(Reader reader) {
+            fontSize = reader.positiveInt("gamePlay.info.fontSize");
+            maxFramesX = reader.nonNegativeDouble("gamePlay.maxFrames.x");
+            maxFramesY = reader.nonNegativeDouble("gamePlay.maxFrames.y");
+            targetX = reader.nonNegativeDouble("gamePlay.target.x");
+            targetY = reader.nonNegativeDouble("gamePlay.target.y");
+            earningsX = reader.nonNegativeDouble("gamePlay.earnings.x");
+            earningsY = reader.nonNegativeDouble("gamePlay.earnings.y");
+            passengerHealthX = reader.nonNegativeDouble("gamePlay.passengerHealth.x");
+            passengerHealthY = reader.nonNegativeDouble("gamePlay.passengerHealth.y");
+            driverHealthX = reader.nonNegativeDouble("gamePlay.driverHealth.x");
+            driverHealthY = reader.nonNegativeDouble("gamePlay.driverHealth.y");
+            taxiHealthX = reader.nonNegativeDouble("gamePlay.taxiHealth.x");
+            taxiHealthY = reader.nonNegativeDouble("gamePlay.taxiHealth.y");
+            coinX = reader.nonNegativeDouble("gameplay.coin.x");
+            coinY = reader.nonNegativeDouble("gameplay.coin.y");
+            tripInfoX = reader.nonNegativeDouble("gamePlay.tripInfo.x");
+            tripInfoY = reader.nonNegativeDouble("gamePlay.tripInfo.y");
+        }
+    }
+
+    /**
+     * Settings for the taxi.
+     */
+    public static final class TaxiConfig {
+        public final String image;
+        public final String damagedImage;
+        public final double radius;
+        public final double health;
+        public final double damage;
+        public final double speedX;
+        public final double speedY;
+        public final int nextSpawnMinY;
+        public final int nextSpawnMaxY;
+
+        private TaxiConfig(Reader reader) {
+            image = reader.file("gameObjects.taxi.image");
+            damagedImage = reader.file("gameObjects.taxi.damagedImage");
+            radius = reader.positiveDouble("gameObjects.taxi.radius");
+            health = reader.positiveDouble("gameObjects.taxi.health");
+            damage = reader.nonNegativeDouble("gameObjects.taxi.damage");
+            speedX = reader.nonNegativeDouble("gameObjects.taxi.speedX");
+            speedY = reader.nonNegativeDouble("gameObjects.taxi.speedY");
+            nextSpawnMinY = reader.nonNegativeInt("gameObjects.taxi.nextSpawnMinY");
+            nextSpawnMaxY = reader.nonNegativeInt("gameObjects.taxi.nextSpawnMaxY");
+            reader.requireOrdered("gameObjects.taxi.nextSpawnMinY", nextSpawnMinY,
+                    "gameObjects.taxi.nextSpawnMaxY", nextSpawnMaxY);
+        }
+    }
+
+    /**
+     * Settings for a kind of computer-driven car.
+     */
+    public static final class CarConfig {
+        public final String image;
+        public final double radius;
+        public final double health;
+        public final double damage;
+        public final double minSpeedY;
+        public final double maxSpeedY;
+        public final double speedX;
+        public final int types;
+        //the image of each variant, formatted once so that spawning a car allocates nothing
+        private final String[] images;
+
+        private CarConfig(Reader reader, String prefix) {
+            types = reader.positiveInt(prefix + ".types");
+            image = reader.string(prefix + ".image");
+            images = new String[types];
+            for (int type = 1; type <= types; type++) {
+                images[type - 1] = image.contains("%d") ? String.format(image, type) : image;
+                reader.requireFile(prefix + ".image", images[type - 1]);
+            }
+            radius = reader.positiveDouble(prefix + ".radius");
+            health = reader.positiveDouble(prefix + ".health");
+            damage = reader.nonNegativeDouble(prefix + ".damage");
+            minSpeedY = reader.nonNegativeDouble(prefix + ".minSpeedY");
+            maxSpeedY = reader.nonNegativeDouble(prefix + ".maxSpeedY");
+            speedX = reader.nonNegativeDouble(prefix + ".speedX");
+            reader.requireOrdered(prefix + ".minSpeedY", minSpeedY, prefix + ".maxSpeedY", maxSpeedY);
+        }
+
+        /**
+         * Gets the image of one of the car's numbered variants.
+         *
+         * @param type The variant, from 1 to types
+         * @return The image path
+         */
+        public String getImage(int type) {
+            return images[type - 1];
+        }
+    }
+
+    /**
+     * Settings for fireballs shot by enemy cars.
+     */
+    public static final class FireballConfig {
+        public final String image;
+        public final double radius;
+        public final double damage;
+        public final double shootSpeedY;
+
+        private FireballConfig(Reader reader) {
+            image = reader.file("gameObjects.fireball.image");
+            radius = reader.positiveDouble("gameObjects.fireball.radius");
+            damage = reader.nonNegativeDouble("gameObjects.fireball.damage");
+            shootSpeedY = reader.nonNegativeDouble("gameObjects.fireball.shootSpeedY");
+        }
+    }
+
+    /**
+     * The mean number of frames between spawn events, as a curve over the frame number for each weather.
+     * A curve is a list of frame:interval points, interpolated linearly between points and held at the
+     * first and last interval outside them. The raining curve is optional and defaults to the sunny one.
+     */
+    public static final class SpawnConfig {
+        private final double[] sunny;
+        private final double[] raining;
+
+        private SpawnConfig(Reader reader, String key) {
+            sunny = reader.curve(key);
+            raining = reader.has(key + ".raining") ? reader.curve(key + ".raining") : sunny;
+        }
+
+        /**
+         * Gets the mean number of frames between events at a frame in a weather.
+         *
+         * @param frame The frame number
+         * @param weather The weather
+         * @return The mean interval, at least 1
+         */
+        public double getInterval(int frame, WeatherCondition.WeatherType weather) {
+            double[] points = weather == WeatherCondition.WeatherType.RAINING ? raining : sunny;
+            if (frame <= points[0]) {
+                return points[1];
+            }
+            for (int i = 2; i < points.length; i += 2) {
+                if (frame < points[i]) {
+                    double t = (frame - points[i - 2]) / (points[i] - points[i - 2]);
+                    return points[i - 1] + t * (points[i + 1] - points[i - 1]);
+                }
+            }
+            return points[points.length - 1];
+        }
+    }
+
+    /**
+     * Settings for a collision effect.
+     */
+    public static final class EffectConfig {
+        public final String image;
+        public final int ttl;
+        public final int capacity;
+
+        private EffectConfig(Reader reader, String prefix) {
+            image = reader.file(prefix + ".image");
+            ttl = reader.positiveInt(prefix + ".ttl");
+            capacity = reader.nonNegativeInt(prefix + ".capacity");
+        }
+    }
+
+    /**
+     * Settings for passengers.
+     */
+    public static final class PassengerConfig {
+        public final String image;
+        public final double walkSpeedX;
+        public final double walkSpeedY;
+        public final double radius;
+        public final double taxiDetectRadius;
+        public final double taxiGetInRadius;
+        public final double health;
+        public final int fontSize;
+
+        private PassengerConfig(Reader reader) {
+            image = reader.file("gameObjects.passenger.image");
+            walkSpeedX = reader.nonNegativeDouble("gameObjects.passenger.walkSpeedX");
+            walkSpeedY = reader.nonNegativeDouble("gameObjects.passenger.walkSpeedY");
+            radius = reader.positiveDouble("gameObjects.passenger.radius");
+            taxiDetectRadius = reader.positiveDouble("gameObjects.passenger.taxiDetectRadius");
+            taxiGetInRadius = reader.positiveDouble("gameObjects.passenger.taxiGetInRadius");
+            health = reader.positiveDouble("gameObjects.passenger.health");
+            fontSize = reader.positiveInt("gameObjects.passenger.fontSize");
+        }
+    }
+
+    /**
+     * Settings for the driver.
+     */
+    public static final class DriverConfig {
+        public final String image;
+        public final double walkSpeedX;
+        public final double walkSpeedY;
+        public final double radius;
+        public final double taxiGetInRadius;
+        public final double health;
+
+        private DriverConfig(Reader reader) {
+            image = reader.file("gameObjects.driver.image");
+            walkSpeedX = reader.nonNegativeDouble("gameObjects.driver.walkSpeedX");
+            walkSpeedY = reader.nonNegativeDouble("gameObjects.driver.walkSpeedY");
+            radius = reader.positiveDouble("gameObjects.driver.radius");
+            taxiGetInRadius = reader.positiveDouble("gameObjects.driver.taxiGetInRadius");
+            health = reader.positiveDouble("gameObjects.driver.health");
+        }
+    }
+
+    /**
+     * Settings for a static level object with an image and collision radius.
+     */
+    public static final class SpriteConfig {
+        public final String image;
+        public final double radius;
+
+        private SpriteConfig(Reader reader, String prefix) {
+            image = reader.file(prefix + ".image");
+            radius = reader.positiveDouble(prefix + ".radius");
+        }
+    }
+
+    /**
+     * Settings for a power-up.
+     */
+    public static final class PowerUpConfig {
+        public final String image;
+        public final double radius;
+        public final int maxFrames;
+
+        private PowerUpConfig(Reader reader, String prefix) {
+            image = reader.file(prefix + ".image");
+            radius = reader.positiveDouble(prefix + ".radius");
+            maxFrames = reader.positiveInt(prefix + ".maxFrames");
+        }
+    }
+
+    /*
+    class to look up, parse and validate individual properties, naming the key in every error
+     */
+    private static final class Reader {
+        private final Properties props;
+
+        Reader(Properties props) {
+            this.props = props;
+        }
+
+        String string(String key) {
+            String value = props.getProperty(key);
+            if (value == null || value.trim().isEmpty()) {
+                throw new IllegalArgumentException("Missing game property: " + key);
+            }
+            return value.trim();
+        }
+
+        boolean has(String key) {
+            String value = props.getProperty(key);
+            return value != null && !value.trim().isEmpty();
+        }
+
+        long longValue(String key) {
+            String value = string(key);
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Game property " + key + " is not an integer: " + value, e);
+            }
+        }
+
+        String file(String key) {
+            String path = string(key);
+            requireFile(key, path);
+            return path;
+        }
+
+        void requireFile(String key, String path) {
+            if (!new File(path).isFile()) {
+                throw new IllegalArgumentException("File for game property " + key + " not found: " + path);
+            }
+        }
+
+        double nonNegativeDouble(String key) {
+            return parseDouble(key, 0, false);
+        }
+
+        double positiveDouble(String key) {
+            return parseDouble(key, 0, true);
+        }
+
+        int nonNegativeInt(String key) {
+            return parseInt(key, 0);
+        }
+
+        int positiveInt(String key) {
+            return parseInt(key, 1);
+        }
+
+        /*
+        method to parse a curve of frame:interval points into alternating frames and intervals
+        frames must increase from one point to the next, and intervals must be at least one frame
+         */
+        double[] curve(String key) {
+            String[] entries = string(key).split(",");
+            double[] points = new double[entries.length * 2];
+            for (int i = 0; i < entries.length; i++) {
+                String[] point = entries[i].trim().split(":");
+                if (point.length != 2) {
+                    throw new IllegalArgumentException("Game property " + key + " has a point that is not "
+                            + "frame:interval: " + entries[i].trim());
+                }
+                try {
+                    points[2 * i] = Double.parseDouble(point[0].trim());
+                    points[2 * i + 1] = Double.parseDouble(point[1].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Game property " + key + " has a point that is not "
+                            + "numeric: " + entries[i].trim(), e);
+                }
+                if (!(points[2 * i] >= 0) || Double.isInfinite(points[2 * i])
+                        || !(points[2 * i + 1] >= 1) || Double.isInfinite(points[2 * i + 1])
+                        || (i > 0 && points[2 * i] <= points[2 * i - 2])) {
+                    throw new IllegalArgumentException("Game property " + key + " has a point out of range "
+                            + "or order: " + entries[i].trim());
+                }
+            }
+            return points;
+        }
+
+        void requireOrdered(String minKey, double min, String maxKey, double max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Game property " + minKey + " (" + min + ") exceeds "
+                        + maxKey + " (" + max + ")");
+            }
+        }
+
+        private double parseDouble(String key, double bound, boolean exclusive) {
+            String value = string(key);
+            double parsed;
+            try {
+                parsed = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Game property " + key + " is not a number: " + value, e);
+            }
+            if (Double.isNaN(parsed) || Double.isInfinite(parsed) || parsed < bound || (exclusive && parsed == bound)) {
+                throw new IllegalArgumentException("Game property " + key + " is out of range: " + value);
+            }
+            return parsed;
+        }
+
+        private int parseInt(String key, int min) {
+            String value = string(key);
+            int parsed;
+            try {
+                parsed = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Game property " + key + " is not an integer: " + value, e);
+            }
+            if (parsed < min) {
+                throw new IllegalArgumentException("Game property " + key + " is out of range: " + value);
+            }
+            return parsed;
+        }
+    }
+}
@@ -1,16 +1,12 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
  * Represents a basic game entity with position, image, and collision properties.
  */
 public abstract class GameEntity implements Collidable {
-    /**
-     * The speed at which the game world scrolls vertically.
-     */
-    protected final int SCROLL_SPEED = 5;
-    protected Point position;
-    protected Image image;
+    protected double x;
+    protected double y;
+    protected String imagePath;
     protected double radius;
 
     /**
@@ -22,8 +18,9 @@ public abstract class GameEntity implements Collidable {
      * @param radius The collision radius of the entity
      */
     public GameEntity(double x, double y, String imagePath, double radius) {
-        this.position = new Point(x, y);
-        this.image = new Image(imagePath);
+        this.x = x;
+        this.y = y;
+        this.imagePath = imagePath;
         this.radius = radius;
     }
 
@@ -33,38 +30,97 @@ public abstract class GameEntity implements Collidable {
     public abstract void update();
 
     /**
-     * Draws the entity on the game screen.
+     * Draws the entity into the snapshot of the current frame. Entities only record what to draw,
+     * so they can be simulated on a thread that has no window.
+     *
+     * @param frame The snapshot being recorded
      */
-    public abstract void draw();
+    public abstract void draw(FrameSnapshot frame);
 
     /**
      * Checks if this entity collides with another entity.
+     * Squared distances are compared, so that no square root is taken.
      *
      * @param other The other entity to check collision with
      * @return true if the entities collide, false otherwise
      */
     public boolean collidesWith(GameEntity other) {
-        double distance = position.distanceTo(other.getPosition());
-        return distance < (this.radius + other.getRadius());
+        double dx = getX() - other.getX();
+        double dy = getY() - other.getY();
+        double reach = getRadius() + other.getRadius();
+        return dx * dx + dy * dy < reach * reach;
     }
 
     /**
-     * Handles collision with another game entity.
+     * Gets the distance from this entity's position to a point.
      *
-     * @param other The other entity involved in the collision
+     * @param otherX The x-coordinate of the point
+     * @param otherY The y-coordinate of the point
+     * @return The distance to the point
+     */
+    public double distanceTo(double otherX, double otherY) {
+        double dx = getX() - otherX;
+        double dy = getY() - otherY;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Gets the distance between the positions of this entity and another.
+     *
+     * @param other The other entity
+     * @return The distance to the other entity
+     */
+    public double distanceTo(GameEntity other) {
+        return distanceTo(other.getX(), other.getY());
+    }
+
+    /**
+     * Gets the collision type of the entity. Entities that collide with nothing, such as trip
+     * end flags, have none.
+     *
+     * @return The collision type, or null if the entity collides with nothing
      */
     @Override
-    public void handleCollision(GameEntity other) {
+    public CollisionType getCollisionType() {
+        return null;
     }
 
     //getters and setters
     /**
-     * Gets the current position of the entity.
+     * Changes the entity's image, for entities reused with a different look.
+     *
+     * @param imagePath The file path to the new image
+     */
+    protected void setImagePath(String imagePath) {
+        this.imagePath = imagePath;
+    }
+
+    /**
+     * Gets a snapshot of the current position of the entity.
+     * Allocates a new Point, so gameplay code uses getX() and getY() instead.
      *
      * @return The Point representing the entity's position
      */
     public Point getPosition() {
-        return position;
+        return new Point(getX(), getY());
+    }
+
+    /**
+     * Gets the x-coordinate of the entity's position.
+     *
+     * @return The x-coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the y-coordinate of the entity's position.
+     *
+     * @return The y-coordinate
+     */
+    public double getY() {
+        return y;
     }
 
     /**
@@ -73,7 +129,18 @@ public abstract class GameEntity implements Collidable {
      * @param position The new position for the entity
      */
     public void setPosition(Point position) {
-        this.position = position;
+        setPosition(position.x, position.y);
+    }
+
+    /**
+     * Sets the position of the entity.
+     *
+     * @param x The new x-coordinate
+     * @param y The new y-coordinate
+     */
+    public void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
     }
 
     /**
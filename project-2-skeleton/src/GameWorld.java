@@ -0,0 +1,1399 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The window-free gameplay simulation of Shadow Taxi.
+ * Holds every game entity and advances them one frame at a time from an InputFrame,
+ * without touching bagel's window, images or fonts.
+ * Entity positions are world coordinates; the Camera maps them to the screen.
+ */
+public class GameWorld {
+
+    //constants
+    /**
+     * The width of the visible play area in pixels.
+     */
+    public static final int WINDOW_WIDTH = 1024;
+    /**
+     * The height of the visible play area in pixels.
+     */
+    public static final int WINDOW_HEIGHT = 768;
+    private static final double PASSENGER_PICKUP_DISTANCE = 100.0;
+    private static final double PASSENGER_ENTER_DISTANCE = 5.0;
+    private static final double MAX_PASSENGER_HEALTH = 100.0;
+    private static final CollisionType[] COLLISION_TYPES = CollisionType.values();
+    private static final int NO_SLOT = -1;
+    private static final Passenger.State[] PASSENGER_STATES = Passenger.State.values();
+
+    //passenger states acted on by each gameplay phase
+    private static final Passenger.State[] ACTIVE_STATES = {
+            Passenger.State.WAITING, Passenger.State.WALKING_TO_TAXI, Passenger.State.RIDING,
+            Passenger.State.WALKING_TO_FLAG, Passenger.State.FOLLOWING_DRIVER};
+    private static final Passenger.State[] WALKING_STATES = {
+            Passenger.State.WALKING_TO_TAXI, Passenger.State.WALKING_TO_FLAG, Passenger.State.FOLLOWING_DRIVER};
+    //passengers already walking are considered for pickup before waiting passengers start walking
+    private static final Passenger.State[] PICKUP_STATES = {
+            Passenger.State.FOLLOWING_DRIVER, Passenger.State.WALKING_TO_TAXI,
+            Passenger.State.WALKING_TO_FLAG, Passenger.State.WAITING};
+
+    //configuration, level and randomness
+    private final GameConfig config;
+    private final LevelLayout level;
+    private final RandomService random;
+    private final SpawnDirector spawnDirector;
+    private final LaneOccupancy laneOccupancy;
+
+    //game state variables
+    private int currentFrame;
+    private boolean isWin;
+    private boolean isGameOver;
+
+    //last completed trip
+    private boolean hasLastTrip;
+    private double lastTripExpectedEarnings;
+    private int lastTripPriority;
+    private double lastTripPenalty;
+
+    //game objects
+    private Taxi taxi;
+    private Taxi taxiOld;
+    private Driver driver;
+    private List<Passenger> passengers;
+    private final PassengerPartitions passengerStates;
+    private final HudAggregates aggregates;
+    private final List<Passenger> collidablePassengers;
+    private final EntityStore<Car> cars;
+    private final EntityStore<EnemyCar> enemyCars;
+    private List<Coin> coins;
+    private List<InvinciblePower> invinciblePowers;
+    private List<Passenger> activeTrips;
+    private final EntityStore<Fireball> fireballs;
+    private final TimerWheel timers;
+
+    //weather
+    private WeatherTimeline weatherTimeline;
+    private boolean hasRained;
+
+    //scrolling
+    private final Camera camera;
+    private double backgroundY1;
+    private double backgroundY2;
+
+    //collision broadphase, with a grid for each type that is only ever the second of a pair or paired with itself
+    private final SpatialHash<Car> carGrid;
+    private final SpatialHash<EnemyCar> enemyCarGrid;
+    private final SpatialHash<Coin> coinGrid;
+    private final SpatialHash<InvinciblePower> invinciblePowerGrid;
+    private final SpatialHash<Fireball> fireballGrid;
+    private final SpatialHash<?>[] collisionGrids;
+
+    //collision response
+    private final CollisionMatrix collisions;
+    private final Narrowphase narrowphase;
+
+    //collision effects
+    private final ParticleSystem particles;
+
+    //despawning and culling
+    private final EntityLifecycle lifecycle;
+
+    //reusable entities
+    private final EntityPool<Fireball> fireballPool;
+    private final EntityPool<Car> carPool;
+    private final EntityPool<EnemyCar> enemyCarPool;
+
+    //compute and commit phases of the update, used once the world is busy enough
+    private final ParallelUpdate parallelUpdate;
+
+    /**
+     * Constructs a new GameWorld and loads the level described by the game configuration.
+     * The world is seeded from the configuration if it names a seed, and from a fresh seed otherwise.
+     *
+     * @param config The compiled game settings
+     */
+    public GameWorld(GameConfig config) {
+        this(config, config.hasRandomSeed ? config.randomSeed : RandomService.newSeed());
+    }
+
+    /**
+     * Constructs a new GameWorld whose random decisions all follow from a seed.
+     * Two worlds built from the same configuration and seed play out identically.
+     *
+     * @param config The compiled game settings
+     * @param seed The seed for the world's random numbers
+     */
+    public GameWorld(GameConfig config, long seed) {
+        this.config = config;
+        this.random = new RandomService(seed);
+        this.spawnDirector = new SpawnDirector(config, random);
+        this.laneOccupancy = new LaneOccupancy(config.laneCenter1, config.laneCenter2, config.laneCenter3);
+        this.camera = new Camera();
+        this.passengerStates = new PassengerPartitions();
+        this.aggregates = new HudAggregates(MAX_PASSENGER_HEALTH);
+        this.collidablePassengers = new ArrayList<>();
+        this.level = LevelLayout.fromFile(config.objectsFile);
+
+        //cells are one lane wide and one car long, so traffic in a lane shares a column of cells
+        double laneWidth = getMinLaneSpacing();
+        double bandHeight = 2 * config.otherCar.radius;
+        this.carGrid = new SpatialHash<>(laneWidth, bandHeight);
+        this.enemyCarGrid = new SpatialHash<>(laneWidth, bandHeight);
+        this.coinGrid = new SpatialHash<>(laneWidth, bandHeight);
+        this.invinciblePowerGrid = new SpatialHash<>(laneWidth, bandHeight);
+        this.fireballGrid = new SpatialHash<>(laneWidth, bandHeight);
+        this.collisionGrids = new SpatialHash<?>[COLLISION_TYPES.length];
+        collisionGrids[CollisionType.CAR.ordinal()] = carGrid;
+        collisionGrids[CollisionType.ENEMY_CAR.ordinal()] = enemyCarGrid;
+        collisionGrids[CollisionType.COIN.ordinal()] = coinGrid;
+        collisionGrids[CollisionType.INVINCIBLE_POWER.ordinal()] = invinciblePowerGrid;
+        collisionGrids[CollisionType.FIREBALL.ordinal()] = fireballGrid;
+        this.collisions = new CollisionMatrix();
+        registerCollisionResponses();
+        this.narrowphase = new Narrowphase(collisionGrids, collisions,
+                config.parallelCollisionThreshold, config.collisionParallelism);
+
+        this.particles = new ParticleSystem(config);
+        this.lifecycle = new EntityLifecycle(config.despawnMargin, config.cullMargin);
+        this.timers = new TimerWheel();
+        this.cars = new EntityStore<>(timers);
+        this.enemyCars = new EntityStore<>(timers);
+        this.fireballs = new EntityStore<>(timers);
+        this.fireballPool = new EntityPool<>(() -> new Fireball(0, 0,
+                config.fireball.image,
+                config.fireball.radius,
+                0,
+                config.fireball.shootSpeedY,
+                fireballs), config.fireballPoolSize, fireballs::unregister);
+        this.carPool = new EntityPool<>(() -> new Car(0, 0,
+                config.otherCar.getImage(1),
+                config.otherCar.radius,
+                random.getCarSpeed(),
+                cars), config.carPoolSize, cars::unregister);
+        this.enemyCarPool = new EntityPool<>(() -> new EnemyCar(0, 0,
+                config.enemyCar.image,
+                config.enemyCar.radius,
+                random.getCarSpeed(),
+                fireballPool,
+                enemyCars), config.enemyCarPoolSize, enemyCars::unregister);
+        this.parallelUpdate = new ParallelUpdate(cars, enemyCars, fireballs, lifecycle,
+                config.parallelUpdateThreshold, config.parallelUpdateChunkSize);
+        reset();
+    }
+
+    /*
+    method to find the narrowest gap between road lane centres
+     */
+    private double getMinLaneSpacing() {
+        double[] lanes = {config.laneCenter1, config.laneCenter2, config.laneCenter3};
+        Arrays.sort(lanes);
+        return Math.min(lanes[1] - lanes[0], lanes[2] - lanes[1]);
+    }
+
+    /**
+     * Resets the world to the start of a new game, reloading all game objects and weather.
+     */
+    public void reset() {
+        currentFrame = 0;
+        isWin = false;
+        isGameOver = false;
+        hasLastTrip = false;
+
+        camera.reset();
+        backgroundY1 = WINDOW_HEIGHT / 2.0;
+        backgroundY2 = -WINDOW_HEIGHT / 2.0;
+
+        //initialize game objects
+        taxiOld = null;
+        readWeatherConditions();
+        readGameObjects();
+
+        particles.clear();
+    }
+
+    /*
+    method to create the taxi and driver, and activate the level objects around the starting view
+     */
+    void readGameObjects() {
+        releasePooledEntities();
+        //the last game's taxi, driver and passengers are gone, and so are their timers
+        timers.clear();
+        passengers = new ArrayList<>();
+        passengerStates.clear();
+        aggregates.clear();
+        cars.clear();
+        enemyCars.clear();
+        coins = new ArrayList<>();
+        invinciblePowers = new ArrayList<>();
+        activeTrips = new ArrayList<>();
+        fireballs.clear();
+
+        taxi = new Taxi(level.getTaxiX(), level.getTaxiY(),
+                config.taxi.image,
+                config.taxi.radius,
+                config.taxi.speedX,
+                config.taxi.speedY,
+                timers);
+        driver = new Driver(level.getDriverX(), level.getDriverY(),
+                config.driver.image,
+                config.driver.radius,
+                config.driver.walkSpeedX,
+                config.driver.walkSpeedY,
+                timers);
+
+        level.rewind();
+        activateLevelObjects();
+        spawnDirector.start(currentFrame, getCurrentWeather());
+        laneOccupancy.clear();
+    }
+
+    /*
+    method to return the cars, enemy cars and fireballs of the previous game to their pools
+     */
+    private void releasePooledEntities() {
+        //each is taken out of the game before its pool sees it, since a full pool gives up its row
+        for (int i = cars.size() - 1; i >= 0; i--) {
+            carPool.release(cars.remove(i));
+        }
+        for (int i = enemyCars.size() - 1; i >= 0; i--) {
+            enemyCarPool.release(enemyCars.remove(i));
+        }
+        for (int i = fireballs.size() - 1; i >= 0; i--) {
+            fireballPool.release(fireballs.remove(i));
+        }
+    }
+
+    /*
+    method to materialise every level object that has come within the activation margin above the view
+     */
+    private void activateLevelObjects() {
+        double windowTop = camera.toWorldY(-config.activationMargin);
+        while (level.hasNextBelow(windowTop)) {
+            int index = level.next();
+            double x = level.getX(index);
+            double y = level.getY(index);
+            switch (level.getKind(index)) {
+                case PASSENGER:
+                    TripEndFlag flag = new TripEndFlag(level.getEndX(index),
+                            y - level.getYDistance(index),
+                            config.tripEndFlag.image,
+                            config.tripEndFlag.radius);
+                    Passenger passenger = new Passenger(x, y,
+                            level.getPriority(index), level.getEndX(index), level.getYDistance(index),
+                            config.passenger.image,
+                            config.fontPath,
+                            config.passenger.fontSize,
+                            config.passenger.radius,
+                            config.tripRatePerY,
+                            config.tripRatePriority1,
+                            config.tripRatePriority2,
+                            config.tripRatePriority3,
+                            config.passenger.walkSpeedX,
+                            config.passenger.walkSpeedY,
+                            level.hasUmbrella(index),
+                            flag,
+                            timers);
+                    //rain raises every passenger without an umbrella to top priority for the rest of the game,
+                    //including those activated after the weather change event
+                    if (hasRained) {
+                        passenger.updatePriority(WeatherCondition.WeatherType.RAINING);
+                    }
+                    passengers.add(passenger);
+                    passengerStates.add(passenger);
+                    aggregates.add(passenger);
+                    break;
+                case COIN:
+                    coins.add(new Coin(x, y,
+                            config.coin.image,
+                            config.coin.radius));
+                    break;
+                case INVINCIBLE_POWER:
+                    invinciblePowers.add(new InvinciblePower(x, y,
+                            config.invinciblePower.image,
+                            config.invinciblePower.radius));
+                    break;
+            }
+        }
+    }
+
+    /*
+    method to release level objects that have scrolled past the activation margin below the view
+    only passengers still waiting are released, together with their trip end flags
+     */
+    private void releaseLevelObjects() {
+        double windowBottom = camera.toWorldY(WINDOW_HEIGHT + config.activationMargin);
+
+        Passenger next;
+        for (Passenger passenger = passengerStates.first(Passenger.State.WAITING); passenger != null; passenger = next) {
+            next = passenger.getNextInState();
+            if (passenger.getY() > windowBottom) {
+                passengers.remove(passenger);
+                passengerStates.remove(passenger);
+                //a passenger who stopped walking before being delivered can fall behind the view mid-trip
+                activeTrips.remove(passenger);
+                aggregates.remove(passenger);
+            }
+        }
+
+        for (int i = 0; i < coins.size(); i++) {
+            if (coins.get(i).getY() > windowBottom) {
+                coins.remove(i--);
+            }
+        }
+
+        for (int i = 0; i < invinciblePowers.size(); i++) {
+            if (invinciblePowers.get(i).getY() > windowBottom) {
+                invinciblePowers.remove(i--);
+            }
+        }
+    }
+
+    /*
+    method to read in weather conditions
+     */
+    private void readWeatherConditions() {
+        String[][] weatherData = IOUtils.readCommaSeparatedFile(config.weatherFile);
+        List<WeatherCondition> weatherConditions = new ArrayList<>();
+
+        for (String[] condition : weatherData) {
+            WeatherCondition.WeatherType type = WeatherCondition.WeatherType.valueOf(condition[0]);
+            int startFrame = Integer.parseInt(condition[1]);
+            int endFrame = Integer.parseInt(condition[2]);
+            weatherConditions.add(new WeatherCondition(type, startFrame, endFrame));
+        }
+
+        weatherTimeline = new WeatherTimeline(weatherConditions, WeatherCondition.WeatherType.SUNNY);
+        hasRained = false;
+        weatherTimeline.addListener(this::onWeatherChange);
+    }
+
+    /**
+     * Advances the simulation by a single gameplay frame.
+     *
+     * @param input The directional keys held during this frame
+     */
+    public void step(InputFrame input) {
+        currentFrame++;
+        updateWeather();
+        updateBackgrounds(input);
+        updateGameObjects(input);
+        handlePassengerPickup();
+        handleCollisions();
+        checkGameEndConditions();
+        handlePassengerDropOff();
+    }
+
+    private void updateWeather() {
+        weatherTimeline.advanceTo(currentFrame);
+    }
+
+    /*
+    method to update passenger priorities when the weather changes, rather than every frame
+     */
+    private void onWeatherChange(WeatherCondition.WeatherType previous, WeatherCondition.WeatherType current) {
+        if (current == WeatherCondition.WeatherType.RAINING) {
+            hasRained = true;
+        }
+        for (int i = 0; i < passengers.size(); i++) {
+            passengers.get(i).updatePriority(current);
+        }
+
+        //shots are memoryless, so pending ones are redrawn at the new weather's rate
+        spawnDirector.setWeather(currentFrame, current);
+        for (int i = 0; i < enemyCars.size(); i++) {
+            enemyCars.get(i).setNextFireFrame(spawnDirector.nextFireFrame(currentFrame));
+        }
+    }
+
+    /*
+    method to create background scrolling effect based on user input
+     */
+    private void updateBackgrounds(InputFrame input) {
+        if (input.isUp()) {
+            backgroundY1 += config.taxi.speedY;
+            backgroundY2 += config.taxi.speedY;
+
+            if (backgroundY1 >= WINDOW_HEIGHT * 1.5) {
+                backgroundY1 = backgroundY2 - WINDOW_HEIGHT;
+            }
+            if (backgroundY2 >= WINDOW_HEIGHT * 1.5) {
+                backgroundY2 = backgroundY1 - WINDOW_HEIGHT;
+            }
+        }
+    }
+
+    /*
+    method to apply per-frame updates to game entities
+    scrolling only moves the camera; coins, power-ups, flags, effects and waiting passengers keep
+    their world positions, and only entities anchored to the screen follow the camera
+     */
+    void updateGameObjects(InputFrame input) {
+        //effects that run out this frame end before anything is updated
+        timers.advance();
+
+        double scrollDistance = input.isUp() ? config.taxi.speedY : 0;
+        camera.scroll(scrollDistance);
+        activateLevelObjects();
+        releaseLevelObjects();
+
+        taxi.followCamera(scrollDistance);
+        taxi.move(input, camera);
+        taxi.update();
+        driver.followCamera(scrollDistance);
+        driver.move(input, camera);
+        driver.update();
+
+        //delivered passengers are done with, so only the others are updated
+        Passenger next;
+        for (Passenger.State state : ACTIVE_STATES) {
+            for (Passenger passenger = passengerStates.first(state); passenger != null; passenger = next) {
+                next = passenger.getNextInState();
+                passenger.update();
+                passenger.followCamera(scrollDistance);
+                if (passenger.isFollowingDriver()) {
+                    passenger.setWalking(true);
+                    passenger.followDriver(driver.getX(), driver.getY());
+                }
+            }
+        }
+
+        if (parallelUpdate.isWorthwhile()) {
+            updateDynamicEntitiesInParallel(scrollDistance);
+        } else {
+            updateDynamicEntities(scrollDistance);
+        }
+
+        //spawn new cars
+        SpawnDirector.Event spawn;
+        while ((spawn = spawnDirector.poll(currentFrame)) != null) {
+            if (!spawnTraffic(spawn)) {
+                spawnDirector.defer(spawn, currentFrame);
+            }
+        }
+
+        particles.update();
+
+        handleDriverTaxiInteraction();
+        regenerateTaxiIfNeeded();
+    }
+
+    /*
+    method to update the traffic and fireballs on this thread
+    traffic and fireballs are moved by their stores' systems, a pass over each column at a time
+     */
+    private void updateDynamicEntities(double scrollDistance) {
+        cars.updateTimers();
+        cars.moveTraffic(scrollDistance);
+        enemyCars.updateTimers();
+        enemyCars.moveTraffic(scrollDistance);
+
+        //fireballs shot this frame start from an enemy car that has already followed the camera
+        int firedBefore = fireballs.size();
+        for (int i = 0; i < enemyCars.size(); i++) {
+            EnemyCar enemyCar = enemyCars.get(i);
+            if (currentFrame >= enemyCar.getNextFireFrame()) {
+                fireballs.add(enemyCar.shootFireball());
+                enemyCar.setNextFireFrame(spawnDirector.nextFireFrame(currentFrame));
+            }
+        }
+        fireballs.moveProjectiles(scrollDistance, firedBefore);
+
+        //dynamic entities that have left the screen by the despawn margin go back to their pools
+        lifecycle.beginFrame();
+        lifecycle.sweep(cars, carPool, camera);
+        lifecycle.sweep(enemyCars, enemyCarPool, camera);
+        lifecycle.sweep(fireballs, fireballPool, camera);
+    }
+
+    /*
+    method to update the traffic and fireballs as updateDynamicEntities does, moving them on the ForkJoin pool
+    shooting and despawning change the shared lists, so they are committed here in list order afterwards
+     */
+    private void updateDynamicEntitiesInParallel(double scrollDistance) {
+        int firedBefore = fireballs.size();
+        parallelUpdate.compute(scrollDistance, currentFrame, camera);
+
+        for (int i = 0; i < parallelUpdate.getFiringCount(); i++) {
+            EnemyCar enemyCar = enemyCars.get(parallelUpdate.getFiringRow(i));
+            fireballs.add(enemyCar.shootFireball());
+            enemyCar.setNextFireFrame(spawnDirector.nextFireFrame(currentFrame));
+        }
+        fireballs.moveProjectiles(firedBefore, fireballs.size(), scrollDistance, firedBefore);
+
+        lifecycle.beginFrame();
+        parallelUpdate.sweep(cars, carPool);
+        parallelUpdate.sweep(enemyCars, enemyCarPool);
+        parallelUpdate.sweep(fireballs, fireballPool);
+    }
+
+    /*
+    method to register the response to each pair of colliding types
+    the taxi and traffic damage each other, while the driver and passengers are only hurt by what they hit
+     */
+    private void registerCollisionResponses() {
+        collisions.register(CollisionType.TAXI, CollisionType.CAR, this::resolveTaxiTraffic);
+        collisions.register(CollisionType.TAXI, CollisionType.ENEMY_CAR, this::resolveTaxiTraffic);
+        collisions.register(CollisionType.TAXI, CollisionType.COIN, (Taxi taxi, Coin coin) -> {
+            taxi.collect(coin);
+            if (taxi.getCurrentPassenger() != null) {
+                taxi.getCurrentPassenger().increasePriority();
+            }
+            return true;
+        });
+        collisions.register(CollisionType.TAXI, CollisionType.INVINCIBLE_POWER, (Taxi taxi, InvinciblePower power) -> {
+            taxi.collect(power);
+            return true;
+        });
+        collisions.register(CollisionType.TAXI, CollisionType.FIREBALL, (Taxi taxi, Fireball fireball) -> {
+            taxi.handleHit(fireball, fireball.getDamage());
+            particles.emit(taxi.getX(), taxi.getY(), EffectType.SMOKE);
+            return true;
+        });
+
+        collisions.register(CollisionType.DRIVER, CollisionType.CAR, this::resolveDriverTraffic);
+        collisions.register(CollisionType.DRIVER, CollisionType.ENEMY_CAR, this::resolveDriverTraffic);
+        //a fireball hits the driver before a power-up is picked up, and the collision timeout then stops the pick-up
+        collisions.register(CollisionType.DRIVER, CollisionType.FIREBALL, (Driver driver, Fireball fireball) -> {
+            driver.handleHit(fireball, fireball.getDamage());
+            particles.emit(driver.getX(), driver.getY(), EffectType.BLOOD);
+            return true;
+        });
+        collisions.register(CollisionType.DRIVER, CollisionType.INVINCIBLE_POWER, (Driver driver, InvinciblePower power) -> {
+            driver.collect(power);
+            return true;
+        });
+
+        collisions.register(CollisionType.PASSENGER, CollisionType.CAR, this::resolvePassengerTraffic);
+        collisions.register(CollisionType.PASSENGER, CollisionType.ENEMY_CAR, this::resolvePassengerTraffic);
+        collisions.register(CollisionType.PASSENGER, CollisionType.FIREBALL, (Passenger passenger, Fireball fireball) -> {
+            passenger.handleHit(fireball, fireball.getDamage());
+            particles.emit(passenger.getX(), passenger.getY(), EffectType.BLOOD);
+            return true;
+        });
+
+        collisions.register(CollisionType.CAR, CollisionType.CAR, this::resolveTrafficPair);
+        collisions.register(CollisionType.CAR, CollisionType.ENEMY_CAR, this::resolveTrafficPair);
+        collisions.register(CollisionType.ENEMY_CAR, CollisionType.ENEMY_CAR, this::resolveTrafficPair);
+    }
+
+    /*
+    method to damage the taxi and a car that hit each other
+     */
+    private boolean resolveTaxiTraffic(Taxi taxi, Car car) {
+        taxi.handleHit(car, car.getDamage());
+        car.handleHit(taxi, taxi.getDamage());
+        particles.emit(taxi.getX(), taxi.getY(), EffectType.SMOKE);
+        return false;
+    }
+
+    /*
+    method to hurt the driver when hit by a car
+     */
+    private boolean resolveDriverTraffic(Driver driver, Car car) {
+        driver.handleHit(car, car.getDamage());
+        particles.emit(driver.getX(), driver.getY(), EffectType.BLOOD);
+        return false;
+    }
+
+    /*
+    method to hurt a passenger on the road when hit by a car
+     */
+    private boolean resolvePassengerTraffic(Passenger passenger, Car car) {
+        passenger.handleHit(car, car.getDamage());
+        particles.emit(passenger.getX(), passenger.getY(), EffectType.BLOOD);
+        return false;
+    }
+
+    /*
+    method to damage two cars that hit each other, with smoke unless either is still recovering
+     */
+    private boolean resolveTrafficPair(Car car1, Car car2) {
+        car1.handleHit(car2, car2.getDamage());
+        car2.handleHit(car1, car1.getDamage());
+        if (!car1.isInCollisionTimeout() && !car2.isInCollisionTimeout()) {
+            particles.emit(car1.getX(), car1.getY(), EffectType.SMOKE);
+        }
+        return false;
+    }
+
+    /*
+    method to manage all game object collisions
+    each broadphase grid is rebuilt once, and every colliding pair is resolved once, from the entity of
+    the lower type id, visiting the types in the order their pairs were registered and the candidates of
+    each type in list order
+     */
+    void handleCollisions() {
+        carGrid.rebuild(cars);
+        enemyCarGrid.rebuild(enemyCars);
+        coinGrid.rebuild(coins);
+        invinciblePowerGrid.rebuild(invinciblePowers);
+        fireballGrid.rebuild(fireballs);
+        //riding passengers are listed too, since a taxi destroyed this frame puts its passenger back on the road
+        collidablePassengers.clear();
+        for (Passenger.State state : ACTIVE_STATES) {
+            for (Passenger passenger = passengerStates.first(state); passenger != null;
+                 passenger = passenger.getNextInState()) {
+                collidablePassengers.add(passenger);
+            }
+        }
+
+        resolveCollisions(taxi, NO_SLOT);
+
+        //the driver only collides when not in taxi
+        if (!driver.isInTaxi()) {
+            resolveCollisions(driver, NO_SLOT);
+        }
+
+        //passengers only collide while on the road
+        for (int p = 0; p < collidablePassengers.size(); p++) {
+            Passenger passenger = collidablePassengers.get(p);
+            if (!passenger.isPickedUp()) {
+                resolveCollisions(passenger, NO_SLOT);
+            }
+        }
+
+        //handle Car-to-Car and Car-to-EnemyCar collisions
+        //dead cars are removed in list order, and every pair is resolved once when the first live car is reached
+        boolean carPairsResolved = false;
+        int carIndex = 0;
+        for (int slot = 0; slot < carGrid.size(); slot++) {
+            Car car = carGrid.get(slot);
+
+            if (car.getHealth() <= 0) {
+                particles.emit(car.getX(), car.getY(), EffectType.FIRE);
+                carPool.release(cars.remove(carIndex));
+                carGrid.remove(slot);
+                continue;
+            }
+            carIndex++;
+
+            if (!carPairsResolved) {
+                resolveGridCollisions(carGrid);
+                carPairsResolved = true;
+            }
+        }
+
+        //handle EnemyCar-to-EnemyCar collisions
+        boolean enemyCarPairsResolved = false;
+        int enemyCarIndex = 0;
+        for (int slot = 0; slot < enemyCarGrid.size(); slot++) {
+            EnemyCar enemyCar = enemyCarGrid.get(slot);
+
+            if (enemyCar.getHealth() <= 0) {
+                particles.emit(enemyCar.getX(), enemyCar.getY(), EffectType.FIRE);
+                enemyCarPool.release(enemyCars.remove(enemyCarIndex));
+                enemyCarGrid.remove(slot);
+                continue;
+            }
+            enemyCarIndex++;
+
+            if (!enemyCarPairsResolved) {
+                resolveGridCollisions(enemyCarGrid);
+                enemyCarPairsResolved = true;
+            }
+        }
+
+        //check if taxi is permanently damaged and add fire rendering
+        if (taxi.isDamaged()) {
+            particles.emit(taxi.getX(), taxi.getY(), EffectType.FIRE);
+        }
+    }
+
+    /*
+    method to resolve the collisions of every entity left in a grid, in list order
+     */
+    private void resolveGridCollisions(SpatialHash<?> grid) {
+        if (narrowphase.isWorthwhile(grid)) {
+            resolveContacts(grid);
+            return;
+        }
+        for (int slot = 0; slot < grid.size(); slot++) {
+            if (!grid.isRemoved(slot)) {
+                resolveCollisions(grid.get(slot), slot);
+            }
+        }
+    }
+
+    /*
+    method to resolve the contacts the parallel narrowphase finds in a grid, in the order the serial pass meets them
+    an entity used up earlier in the pass is skipped, as the serial pass would skip it
+     */
+    private void resolveContacts(SpatialHash<?> grid) {
+        int contactCount = narrowphase.findContacts(grid);
+        for (int i = 0; i < contactCount; i++) {
+            int slot = narrowphase.getSlot(i);
+            int otherType = narrowphase.getOtherType(i);
+            int otherSlot = narrowphase.getOtherSlot(i);
+            SpatialHash<?> otherGrid = collisionGrids[otherType];
+            if (grid.isRemoved(slot) || otherGrid.isRemoved(otherSlot)) {
+                continue;
+            }
+            if (collisions.resolve(grid.get(slot), otherGrid.get(otherSlot))) {
+                removeCollided(COLLISION_TYPES[otherType], otherSlot);
+            }
+        }
+    }
+
+    /*
+    method to resolve an entity against each entity it collides with of the same or a higher type id
+    a pair of the same type is resolved from the lower slot, and an entity used up by a collision is removed
+     */
+    private void resolveCollisions(GameEntity entity, int slot) {
+        CollisionType collisionType = entity.getCollisionType();
+        int type = collisionType.ordinal();
+        for (int partner = 0; partner < collisions.getPartnerCount(collisionType); partner++) {
+            int otherType = collisions.getPartner(collisionType, partner);
+            SpatialHash<?> grid = collisionGrids[otherType];
+            grid.query(entity.getX(), entity.getY(), entity.getRadius());
+            for (int i = 0; i < grid.getResultCount(); i++) {
+                int otherSlot = grid.getResult(i);
+                if (otherType == type && otherSlot <= slot) {
+                    continue;
+                }
+                GameEntity other = grid.get(otherSlot);
+                if (entity.collidesWith(other) && collisions.resolve(entity, other)) {
+                    removeCollided(COLLISION_TYPES[otherType], otherSlot);
+                }
+            }
+        }
+    }
+
+    /*
+    method to remove an entity used up by a collision from the game
+     */
+    private void removeCollided(CollisionType type, int slot) {
+        switch (type) {
+            case COIN:
+                coins.remove(coinGrid.get(slot));
+                coinGrid.remove(slot);
+                break;
+            case INVINCIBLE_POWER:
+                invinciblePowers.remove(invinciblePowerGrid.get(slot));
+                invinciblePowerGrid.remove(slot);
+                break;
+            case FIREBALL:
+                removeFireball(slot);
+                break;
+            default:
+                throw new IllegalStateException(type + " entities are never used up by a collision");
+        }
+    }
+
+    private void removeFireball(int slot) {
+        Fireball fireball = fireballGrid.get(slot);
+        fireballs.remove(fireball);
+        fireballGrid.remove(slot);
+        fireballPool.release(fireball);
+    }
+
+    /**
+     * Draws every entity in view into the snapshot of the current frame, in the order they are layered.
+     *
+     * @param frame The snapshot being recorded
+     */
+    public void draw(FrameSnapshot frame) {
+        taxi.draw(frame);
+        if (taxiOld != null) {
+            taxiOld.draw(frame);
+        }
+        if (!driver.isInTaxi()) {
+            driver.draw(frame);
+        }
+
+        for (Passenger passenger : passengers) {
+            if (lifecycle.isVisible(passenger, camera)) {
+                passenger.draw(frame);
+            }
+        }
+
+        for (Car car : cars) {
+            if (lifecycle.isVisible(car, camera)) {
+                car.draw(frame);
+            }
+        }
+
+        for (EnemyCar enemyCar : enemyCars) {
+            if (lifecycle.isVisible(enemyCar, camera)) {
+                enemyCar.draw(frame);
+            }
+        }
+
+        for (Coin coin : coins) {
+            if (lifecycle.isVisible(coin, camera)) {
+                coin.draw(frame);
+            }
+        }
+
+        for (InvinciblePower power : invinciblePowers) {
+            if (lifecycle.isVisible(power, camera)) {
+                power.draw(frame);
+            }
+        }
+
+        for (Passenger passenger : activeTrips) {
+            TripEndFlag flag = passenger.getTripEndFlag();
+            if (lifecycle.isVisible(flag, camera)) {
+                flag.draw(frame);
+            }
+        }
+
+        for (Fireball fireball : fireballs) {
+            if (lifecycle.isVisible(fireball, camera)) {
+                fireball.draw(frame);
+            }
+        }
+
+        particles.draw(frame);
+    }
+
+    /**
+     * Gets the lowest health of any passenger, or the health of the passenger currently in the taxi.
+     * Passengers not yet activated have full health, and released passengers keep their last health.
+     *
+     * @return The minimum passenger health
+     */
+    public double getMinPassengerHealth() {
+        if (taxi.getCurrentPassenger() != null) {
+            return taxi.getCurrentPassenger().getHealth();
+        }
+        //passengers released behind the view or delivered still count
+        return aggregates.getMinPassengerHealth();
+    }
+
+    /*
+    method to spawn a car or enemy car at the top or bottom of a lane, in a slot clear of other traffic
+    a taken slot is redrawn a few times before the spawn is given back to the director to defer
+     */
+    private boolean spawnTraffic(SpawnDirector.Event event) {
+        laneOccupancy.refresh(currentFrame, cars, enemyCars);
+        RandomStream spawning = random.getSpawning();
+        for (int attempt = 0; attempt <= config.spawnRetries; attempt++) {
+            double x;
+            if (event == SpawnDirector.Event.CAR) {
+                double first = spawning.selectAValue(
+                        config.laneCenter1,
+                        config.laneCenter3
+                );
+                x = spawning.selectAValue((int) first, config.laneCenter2);
+            } else {
+                double first = spawning.selectAValue(
+                        config.laneCenter2,
+                        config.laneCenter3
+                );
+                x = spawning.selectAValue((int) first, config.laneCenter1);
+            }
+            double y = camera.toWorldY(spawning.selectAValue(-50, WINDOW_HEIGHT));
+
+            if (laneOccupancy.isFree(x, y, config.spawnClearance)) {
+                if (event == SpawnDirector.Event.CAR) {
+                    spawnCar(x, y);
+                } else {
+                    spawnEnemyCar(x, y);
+                }
+                laneOccupancy.add(x, y);
+                return true;
+            }
+            spawnDirector.onSlotBlocked(event);
+        }
+        return false;
+    }
+
+    private void spawnCar(double x, double y) {
+        RandomStream spawning = random.getSpawning();
+        Car newCar = carPool.acquire();
+        newCar.reset(x, y, config.otherCar.getImage(spawning.getRandomInt(1, config.otherCar.types + 1)));
+        cars.add(newCar);
+    }
+
+    private void spawnEnemyCar(double x, double y) {
+        EnemyCar newEnemyCar = enemyCarPool.acquire();
+        newEnemyCar.reset(x, y, config.enemyCar.image);
+        newEnemyCar.setNextFireFrame(spawnDirector.nextFireFrame(currentFrame));
+        enemyCars.add(newEnemyCar);
+    }
+    /*
+    method to handle driver-taxi interaction upon damage or regeneration
+     */
+    private void handleDriverTaxiInteraction() {
+        //on regeneration, if driver collides with taxi...
+        if (!driver.isInTaxi()) {
+            if (driver.distanceTo(taxi) <= 10 && !taxi.isDamaged()) {
+                driver.enterTaxi(taxi);
+                taxi.setHasDriver(true);
+
+                //check if there's a passenger following the driver
+                //if true, set the passenger as current passenger for new taxi
+                Passenger passenger = passengerStates.first(Passenger.State.FOLLOWING_DRIVER);
+                if (passenger != null) {
+                    passenger.setWalking(false);
+                    passenger.setPickedUp(true);
+                    passenger.setFollowingDriver(false);
+                    taxi.setCurrentPassenger(passenger);
+                }
+            }
+        } else if (taxi.isDamaged()) {
+            driver.exitTaxi();
+            taxi.setHasDriver(false);
+            driver.setPosition(taxi.getX() - 50, taxi.getY());
+            driver.setCollisionTimeout(200);
+        }
+    }
+    /*
+    method to regenerate taxi if it is damaged
+     */
+    private void regenerateTaxiIfNeeded() {
+        if (taxi.isDamaged() && !driver.isInTaxi()) {
+            RandomStream spawning = random.getSpawning();
+            double first = spawning.selectAValue(
+                    config.laneCenter1,
+                    config.laneCenter3
+            );
+            double x = spawning.selectAValue((int) first, config.laneCenter2);
+
+            double y = camera.toWorldY(spawning.selectAValue(
+                    config.taxi.nextSpawnMinY,
+                    config.taxi.nextSpawnMaxY
+            ));
+            taxiOld = taxi;
+            taxi = new Taxi(x, y,
+                    config.taxi.image,
+                    config.taxi.radius,
+                    config.taxi.speedX,
+                    config.taxi.speedY,
+                    timers);
+            taxi.setHasDriver(false);
+        }
+    }
+    /*
+    method to handle passenger pickup - taken from my project 1 implementation
+     */
+    private void handlePassengerPickup() {
+        Passenger next;
+        if (taxi.getCurrentPassenger() == null && !taxi.isMoving() && taxi.hasDriver()) {
+            pickup:
+            for (Passenger.State state : PICKUP_STATES) {
+                for (Passenger passenger = passengerStates.first(state); passenger != null; passenger = next) {
+                    next = passenger.getNextInState();
+                    double distance = taxi.distanceTo(passenger);
+                    if (distance <= PASSENGER_PICKUP_DISTANCE) {
+                        if (!passenger.isWalking()) {
+                            passenger.setWalking(true);
+                            passenger.setTargetPosition(taxi.getX(), taxi.getY());
+                        } else if (distance <= PASSENGER_ENTER_DISTANCE) {
+                            if (taxi.pickupPassenger(passenger)) {
+                                passenger.setWalking(false);
+                                startTrip(passenger);
+                                break pickup;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Passenger.State state : WALKING_STATES) {
+            for (Passenger passenger = passengerStates.first(state); passenger != null; passenger = next) {
+                next = passenger.getNextInState();
+                if (passenger.isWalking()) {
+                    passenger.moveTowards();
+                }
+            }
+        }
+    }
+
+    /*
+    method to handle passenger Dropoff - taken from my project 1 implementation
+     */
+    private void handlePassengerDropOff() {
+        Passenger currentPassenger = taxi.getCurrentPassenger();
+        if (currentPassenger != null && currentPassenger.isPickedUp() && !taxi.isMoving()) {
+            TripEndFlag flag = currentPassenger.getTripEndFlag();
+            if (taxi.canDropOffPassenger(flag)) {
+                currentPassenger = taxi.dropOffPassenger();
+                currentPassenger.setPickedUp(false);
+                currentPassenger.setWalking(true);
+                currentPassenger.setTargetPosition(flag.getX(), flag.getY());
+            }
+        }
+
+        //only passengers on a trip can reach their flag
+        for (int i = 0; i < activeTrips.size(); i++) {
+            Passenger passenger = activeTrips.get(i);
+            if (passenger.isWalking() && !passenger.isPickedUp()) {
+                TripEndFlag flag = passenger.getTripEndFlag();
+                passenger.moveTowards();
+                if (passenger.distanceTo(flag) < 1) {
+                    passenger.setDroppedOff(true);
+                    passenger.setWalking(false);
+                    passenger.setPosition(flag.getX(), flag.getY());
+                    completeTripAndUpdateInfo(passenger, flag);
+                    activeTrips.remove(i--);
+                }
+            }
+        }
+
+        //passengers walking to the taxi keep the second step per frame they have always taken here
+        Passenger next;
+        for (Passenger passenger = passengerStates.first(Passenger.State.WALKING_TO_TAXI); passenger != null;
+             passenger = next) {
+            next = passenger.getNextInState();
+            passenger.moveTowards();
+        }
+    }
+
+    /*
+    method to update trip scoring after trip completion
+     */
+    private void completeTripAndUpdateInfo(Passenger passenger, TripEndFlag flag) {
+        double tripEarnings = calculateTripEarnings(passenger, flag);
+        aggregates.addTripEarnings(tripEarnings);
+        updateLastTripInfo(passenger, tripEarnings);
+        flag.setVisible(false);
+    }
+
+    private double calculateTripEarnings(Passenger passenger, TripEndFlag flag) {
+        double expectedEarnings = passenger.calculateExpectedEarnings();
+        double penalty = calculateTripPenalty(passenger, flag);
+        return Math.max(0, expectedEarnings - penalty);
+    }
+
+    private double calculateTripPenalty(Passenger passenger, TripEndFlag flag) {
+        if (taxi.getY() < flag.getY()) {
+            return (flag.getY() - taxi.getY()) *
+                    config.tripPenaltyPerY;
+        }
+        return 0;
+    }
+
+    private void updateLastTripInfo(Passenger passenger, double actualEarnings) {
+        hasLastTrip = true;
+        lastTripExpectedEarnings = passenger.calculateExpectedEarnings();
+        lastTripPriority = passenger.getPriority();
+        lastTripPenalty = passenger.calculateExpectedEarnings() - actualEarnings;
+    }
+
+    /*
+    method to show a passenger's trip end flag when they are first picked up, and index their trip until it ends
+     */
+    private void startTrip(Passenger passenger) {
+        TripEndFlag flag = passenger.getTripEndFlag();
+        if (!flag.isVisible()) {
+            flag.setVisible(true);
+            activeTrips.add(passenger);
+        }
+    }
+
+    /*
+    method to check end game conditions
+     */
+    private void checkGameEndConditions() {
+        if (aggregates.getTotalScore() >= config.target) {
+            isWin = true;
+            isGameOver = true;
+        } else if (currentFrame >= config.maxFrames || driver.getHealth() <= 0 || getMinPassengerHealth() <= 0) {
+            isWin = false;
+            isGameOver = true;
+        } else if (!driver.isInTaxi() && camera.toScreenY(taxi.getY()) >= WINDOW_HEIGHT && driver.getY() < taxi.getY()) {
+            // If the driver walks vertically upwards past the newly generated taxi and the y-coordinate of the
+            isWin = false;
+            isGameOver = true;
+        }
+    }
+
+    //getters
+    /**
+     * Gets the number of frames simulated since the game started.
+     *
+     * @return The current frame number
+     */
+    public int getCurrentFrame() {
+        return currentFrame;
+    }
+
+    /**
+     * Gets the total earnings of the current game.
+     *
+     * @return The total score
+     */
+    public double getTotalScore() {
+        return aggregates.getTotalScore();
+    }
+
+    /**
+     * Gets the running passenger health and score totals of the current game.
+     *
+     * @return The HUD aggregates
+     */
+    public HudAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Checks if the game has ended this frame or earlier.
+     *
+     * @return true if the game is over, false otherwise
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Checks if the game was won.
+     *
+     * @return true if the target score was reached, false otherwise
+     */
+    public boolean isWin() {
+        return isWin;
+    }
+
+    /**
+     * Checks if at least one trip has been completed.
+     *
+     * @return true if there is a last trip to report, false otherwise
+     */
+    public boolean hasLastTrip() {
+        return hasLastTrip;
+    }
+
+    /**
+     * Gets the expected earnings of the last completed trip.
+     *
+     * @return The expected earnings
+     */
+    public double getLastTripExpectedEarnings() {
+        return lastTripExpectedEarnings;
+    }
+
+    /**
+     * Gets the passenger priority of the last completed trip.
+     *
+     * @return The priority
+     */
+    public int getLastTripPriority() {
+        return lastTripPriority;
+    }
+
+    /**
+     * Gets the penalty applied to the last completed trip.
+     *
+     * @return The penalty
+     */
+    public double getLastTripPenalty() {
+        return lastTripPenalty;
+    }
+
+    /**
+     * Gets the current weather.
+     *
+     * @return The current weather type
+     */
+    public WeatherCondition.WeatherType getCurrentWeather() {
+        return weatherTimeline.getCurrentWeather();
+    }
+
+    /**
+     * Gets the camera that maps world coordinates to the screen.
+     *
+     * @return The camera
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Gets the pool fireballs are shot from.
+     *
+     * @return The fireball pool
+     */
+    public EntityPool<Fireball> getFireballPool() {
+        return fireballPool;
+    }
+
+    /**
+     * Gets the pool other cars are spawned from.
+     *
+     * @return The car pool
+     */
+    public EntityPool<Car> getCarPool() {
+        return carPool;
+    }
+
+    /**
+     * Gets the pool enemy cars are spawned from.
+     *
+     * @return The enemy car pool
+     */
+    public EntityPool<EnemyCar> getEnemyCarPool() {
+        return enemyCarPool;
+    }
+
+    /**
+     * Gets the seed this world's random numbers follow from, so a game can be replayed.
+     *
+     * @return The random seed
+     */
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    /**
+     * Gets the y-coordinate of the first scrolling background tile.
+     *
+     * @return The background y-coordinate
+     */
+    public double getBackgroundY1() {
+        return backgroundY1;
+    }
+
+    /**
+     * Gets the y-coordinate of the second scrolling background tile.
+     *
+     * @return The background y-coordinate
+     */
+    public double getBackgroundY2() {
+        return backgroundY2;
+    }
+
+    /**
+     * Gets the taxi currently in play.
+     *
+     * @return The taxi
+     */
+    public Taxi getTaxi() {
+        return taxi;
+    }
+
+    /**
+     * Gets the damaged taxi left behind after regeneration.
+     *
+     * @return The previous taxi, or null if the taxi has not been regenerated
+     */
+    public Taxi getTaxiOld() {
+        return taxiOld;
+    }
+
+    /**
+     * Gets the driver.
+     *
+     * @return The driver
+     */
+    public Driver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Gets the passengers in the level.
+     *
+     * @return The passengers
+     */
+    public List<Passenger> getPassengers() {
+        return passengers;
+    }
+
+    /**
+     * Gets the other cars on the road.
+     *
+     * @return The cars
+     */
+    public EntityStore<Car> getCars() {
+        return cars;
+    }
+
+    /**
+     * Gets the enemy cars on the road.
+     *
+     * @return The enemy cars
+     */
+    public EntityStore<EnemyCar> getEnemyCars() {
+        return enemyCars;
+    }
+
+    /**
+     * Gets the coins in the level.
+     *
+     * @return The coins
+     */
+    public List<Coin> getCoins() {
+        return coins;
+    }
+
+    /**
+     * Gets the invincibility power-ups in the level.
+     *
+     * @return The invincibility power-ups
+     */
+    public List<InvinciblePower> getInvinciblePowers() {
+        return invinciblePowers;
+    }
+
+    /**
+     * Gets the passengers whose trip is in progress, from pickup until delivery, in the order they were
+     * first picked up. Only their trip end flags are shown.
+     *
+     * @return The passengers on a trip
+     */
+    public List<Passenger> getActiveTrips() {
+        return activeTrips;
+    }
+
+    /**
+     * Gets the number of trips in progress, from pickup until delivery, in constant time.
+     *
+     * @return The number of active trips
+     */
+    public int getActiveTripCount() {
+        return activeTrips.size();
+    }
+
+    /**
+     * Gets the number of activated passengers that have not been delivered or released, in constant time
+     * from the sizes of the state partitions, which the passengers' state setters keep up to date.
+     *
+     * @return The number of remaining passengers
+     */
+    public int getRemainingPassengers() {
+        int remaining = 0;
+        for (Passenger.State state : PASSENGER_STATES) {
+            if (state != Passenger.State.DELIVERED) {
+                remaining += passengerStates.size(state);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Gets the director scheduling traffic spawns, with its counts of blocked and rejected spawns.
+     *
+     * @return The spawn director
+     */
+    public SpawnDirector getSpawnDirector() {
+        return spawnDirector;
+    }
+
+    /**
+     * Gets the fireballs in flight.
+     *
+     * @return The fireballs
+     */
+    public EntityStore<Fireball> getFireballs() {
+        return fireballs;
+    }
+
+    /**
+     * Gets the lifecycle that despawns and culls the dynamic entities.
+     *
+     * @return The entity lifecycle
+     */
+    public EntityLifecycle getLifecycle() {
+        return lifecycle;
+    }
+
+    /**
+     * Gets the collision effects currently displayed.
+     *
+     * @return The particle system holding the collision effects
+     */
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+}
@@ -0,0 +1,207 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs the gameplay simulation without a window, for soak runs and throughput measurements.
+ * Usage: HeadlessSimulation [frames] [--alloc-budget bytesPerFrame] [--seed seed]
+ * With an allocation budget, the heap allocated by each frame after warm-up is measured, and the
+ * run exits with status 1 if any one frame exceeds the budget. The seed used is always printed, so any
+ * run can be repeated exactly.
+ */
+public class HeadlessSimulation {
+    private static final int DEFAULT_FRAMES = 100000;
+    private static final int SCROLL_FRAMES = 60;
+    private static final int SCRIPT_PERIOD = 90;
+    private static final int WARMUP_FRAMES = 20000;
+    private static final String ALLOC_BUDGET_OPTION = "--alloc-budget";
+    private static final String SEED_OPTION = "--seed";
+
+    /**
+     * Steps a GameWorld through a scripted drive, restarting the game whenever it ends,
+     * and prints the simulated frame rate and, if requested, the per-frame allocation.
+     *
+     * @param args Optionally, the number of frames to simulate, an allocation budget in bytes per frame
+     *             and a random seed
+     */
+    public static void main(String[] args) {
+        int frames = DEFAULT_FRAMES;
+        long allocBudget = -1;
+        Long seed = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(ALLOC_BUDGET_OPTION) && i + 1 < args.length) {
+                allocBudget = Long.parseLong(args[++i]);
+            } else if (args[i].equals(SEED_OPTION) && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                frames = Integer.parseInt(args[i]);
+            }
+        }
+
+        GameConfig config = GameConfig.fromProperties(IOUtils.readPropertiesFile("res/app.properties"));
+        GameWorld world = seed == null ? new GameWorld(config) : new GameWorld(config, seed);
+        System.out.println("seed " + world.getSeed());
+
+        if (allocBudget >= 0) {
+            System.exit(checkAllocations(world, frames, allocBudget) ? 0 : 1);
+        }
+
+        int games = 1;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            world.step(scriptedInput(frame));
+            if (world.isGameOver()) {
+                world.reset();
+                games++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("simulated %d frames over %d games in %.3f s (%.0f frames/s)%n",
+                frames, games, seconds, frames / seconds);
+        printPool("fireball", world.getFireballPool());
+        printPool("car", world.getCarPool());
+        printPool("enemy car", world.getEnemyCarPool());
+        printSpawns("car", world.getSpawnDirector(), SpawnDirector.Event.CAR);
+        printSpawns("enemy car", world.getSpawnDirector(), SpawnDirector.Event.ENEMY_CAR);
+        EntityLifecycle lifecycle = world.getLifecycle();
+        System.out.printf("dynamic entities: %d live at peak, %d despawned%n",
+                lifecycle.getPeakLiveCount(), lifecycle.getTotalDespawnedCount());
+        ParticleSystem particles = world.getParticles();
+        System.out.printf("effects: %d emitted, %d coalesced, %d evicted, %d dropped%n",
+                particles.getEmittedCount(), particles.getCoalescedCount(),
+                particles.getEvictedCount(), particles.getDroppedCount());
+    }
+
+    private static void printSpawns(String name, SpawnDirector director, SpawnDirector.Event event) {
+        System.out.printf("%s spawns: %d blocked slots, %d deferred, %d rejected%n", name,
+                director.getBlockedSlotCount(event), director.getDeferralCount(event),
+                director.getRejectionCount(event));
+    }
+
+    private static void printPool(String name, EntityPool<?> pool) {
+        System.out.printf("%s pool: %d hits, %d misses, %d discards, %d of %d idle%n", name,
+                pool.getHits(), pool.getMisses(), pool.getDiscards(), pool.getIdleCount(), pool.getCapacity());
+    }
+
+    /*
+    method to measure the bytes allocated by each step after warm-up, and compare the most any one frame
+    allocated against the budget
+     */
+    private static boolean checkAllocations(GameWorld world, int frames, long budget) {
+        AllocationReport report;
+        try {
+            report = measureAllocations(world, frames);
+        } catch (UnsupportedOperationException e) {
+            System.out.println(e.getMessage());
+            return false;
+        }
+
+        boolean withinBudget = report.getMaxBytes() <= budget;
+        System.out.printf("allocated %d bytes at most in a frame, %.1f bytes/frame on average, %d of %d frames allocation-free%n",
+                report.getMaxBytes(), (double) report.getTotalBytes() / frames, report.getAllocationFreeFrames(), frames);
+        System.out.printf("allocation budget of %d bytes/frame %s%n", budget, withinBudget ? "met" : "EXCEEDED");
+        return withinBudget;
+    }
+
+    /**
+     * Steps a GameWorld through the scripted drive, restarting the game whenever it ends, and measures
+     * the heap allocated by each step after warm-up. Game resets are left out of the measurement.
+     *
+     * @param world The world to step
+     * @param frames The number of frames to measure after warm-up
+     * @return The allocation of the measured frames
+     * @throws UnsupportedOperationException If the JVM cannot measure the allocation of a thread
+     */
+    public static AllocationReport measureAllocations(GameWorld world, int frames) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("thread allocation measurement is not supported by this JVM");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            world.step(scriptedInput(frame));
+            if (world.isGameOver()) {
+                world.reset();
+            }
+        }
+
+        AllocationReport report = new AllocationReport(frames);
+        for (int frame = 0; frame < frames; frame++) {
+            InputFrame input = scriptedInput(frame);
+            long before = threads.getCurrentThreadAllocatedBytes();
+            world.step(input);
+            report.addFrame(threads.getCurrentThreadAllocatedBytes() - before);
+            if (world.isGameOver()) {
+                world.reset();
+            }
+        }
+        return report;
+    }
+
+    /*
+    method to drive forward in bursts, stopping regularly so passengers can be picked up
+     */
+    private static InputFrame scriptedInput(int frame) {
+        return InputFrame.of(frame % SCRIPT_PERIOD < SCROLL_FRAMES, false, false, false);
+    }
+
+    /**
+     * The heap allocated by the frames of a measured run.
+     */
+    public static class AllocationReport {
+        private final int frames;
+        private long totalBytes;
+        private long maxBytes;
+        private int allocationFreeFrames;
+
+        private AllocationReport(int frames) {
+            this.frames = frames;
+        }
+
+        private void addFrame(long bytes) {
+            totalBytes += bytes;
+            maxBytes = Math.max(maxBytes, bytes);
+            if (bytes == 0) {
+                allocationFreeFrames++;
+            }
+        }
+
+        //getters
+        /**
+         * Gets the number of frames measured.
+         *
+         * @return The number of frames
+         */
+        public int getFrames() {
+            return frames;
+        }
+
+        /**
+         * Gets the bytes allocated by all the measured frames together.
+         *
+         * @return The total bytes
+         */
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        /**
+         * Gets the most bytes allocated by any one measured frame.
+         *
+         * @return The bytes allocated by the worst frame
+         */
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        /**
+         * Gets the number of measured frames that allocated nothing.
+         *
+         * @return The number of allocation-free frames
+         */
+        public int getAllocationFreeFrames() {
+            return allocationFreeFrames;
+        }
+    }
+}
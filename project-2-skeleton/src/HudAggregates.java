@@ -0,0 +1,101 @@
+/**
+ * The running totals shown on the HUD and used by the end of game checks.
+ * Passengers report their health changes as they happen, and the world reports each completed trip,
+ * so the lowest passenger health and the score are each read in constant time instead of by scanning
+ * every passenger each frame. The remaining passengers and the trips in progress are not counted here,
+ * since the world already keeps them in its state partitions and its list of active trips, and answers
+ * both from those.
+ */
+public class HudAggregates {
+    private final double maxPassengerHealth;
+    private double minPassengerHealth;
+    private int completedTrips;
+    private double totalScore;
+
+    /**
+     * Constructs a new HudAggregates for a game that has not started yet.
+     *
+     * @param maxPassengerHealth The health every passenger starts with
+     */
+    public HudAggregates(double maxPassengerHealth) {
+        this.maxPassengerHealth = maxPassengerHealth;
+        clear();
+    }
+
+    /**
+     * Resets every total, for the start of a new game.
+     */
+    public void clear() {
+        minPassengerHealth = maxPassengerHealth;
+        completedTrips = 0;
+        totalScore = 0;
+    }
+
+    /**
+     * Starts tracking a passenger that has been activated.
+     *
+     * @param passenger The passenger to track
+     */
+    public void add(Passenger passenger) {
+        passenger.aggregates = this;
+        onHealthChanged(passenger);
+    }
+
+    /**
+     * Stops tracking a passenger released behind the view. Its health still counts towards the
+     * lowest passenger health, since health only falls.
+     *
+     * @param passenger The passenger to stop tracking
+     */
+    public void remove(Passenger passenger) {
+        passenger.aggregates = null;
+    }
+
+    /**
+     * Adds the earnings of a completed trip to the score.
+     *
+     * @param earnings The trip earnings
+     */
+    public void addTripEarnings(double earnings) {
+        totalScore += earnings;
+        completedTrips++;
+    }
+
+    /*
+    method to fold a passenger's new health into the lowest passenger health
+     */
+    void onHealthChanged(Passenger passenger) {
+        if (passenger.getHealth() < minPassengerHealth) {
+            minPassengerHealth = passenger.getHealth();
+        }
+    }
+
+    //getters
+    /**
+     * Gets the lowest health of any passenger activated this game, including those since
+     * delivered or released.
+     *
+     * @return The lowest passenger health
+     */
+    public double getMinPassengerHealth() {
+        return minPassengerHealth;
+    }
+
+    /**
+     * Gets the number of trips completed this game.
+     *
+     * @return The number of completed trips
+     */
+    public int getCompletedTrips() {
+        return completedTrips;
+    }
+
+    /**
+     * Gets the total earnings of the trips completed this game.
+     *
+     * @return The total score
+     */
+    public double getTotalScore() {
+        return totalScore;
+    }
+}
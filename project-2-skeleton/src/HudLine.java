@@ -0,0 +1,36 @@
+/**
+ * A line of HUD text made of a fixed label and a formatted number.
+ * The text is only rebuilt when the number changes, so a value that holds steady across
+ * frames is formatted once rather than every frame.
+ */
+public class HudLine {
+    private final String label;
+    private final String format;
+    private double value;
+    private String text;
+
+    /**
+     * Constructs a new HudLine.
+     *
+     * @param label The text shown before the number
+     * @param format The format of the number, as for String.format
+     */
+    public HudLine(String label, String format) {
+        this.label = label;
+        this.format = format;
+    }
+
+    /**
+     * Gets the text for a value, rebuilding it only if the value differs from the last one shown.
+     *
+     * @param value The number to show
+     * @return The label followed by the formatted number
+     */
+    public String getText(double value) {
+        if (text == null || Double.compare(value, this.value) != 0) {
+            this.value = value;
+            text = label + String.format(format, value);
+        }
+        return text;
+    }
+}
@@ -1,7 +1,15 @@
 /**
  * Represents a game entity that can move independently of user input.
+ * Its position, radius and speed live in a row of an EntityStore rather than in its own fields,
+ * so that the store's systems can move every such entity in one pass over its arrays.
  */
 public abstract class IndependentlyMovableEntity extends MovableEntity {
+    final EntityStore<?> store;
+    //the entity's row in its store, kept up to date by the store as rows move
+    int id;
+    //made once, so that scheduling a collision timeout allocates nothing
+    final Runnable collisionTimerExpired;
+
     /**
      * Skeleton code to construct a new IndependentlyMovableEntity at the specified position.
      *
@@ -11,13 +19,63 @@ public abstract class IndependentlyMovableEntity extends MovableEntity {
      * @param radius The collision radius of the entity
      * @param speedX The horizontal speed of the entity
      * @param speedY The vertical speed of the entity
+     * @param store The store that keeps the entity's state, which gives it a row outside the game
      */
-    public IndependentlyMovableEntity(double x, double y, String imagePath, double radius, double speedX, double speedY) {
+    public IndependentlyMovableEntity(double x, double y, String imagePath, double radius, double speedX, double speedY,
+                                      EntityStore<?> store) {
         super(x, y, imagePath, radius, speedX, speedY);
+        this.store = store;
+        this.collisionTimerExpired = () -> store.onCollisionTimerExpired(this);
+        store.register(this, x, y, radius, speedY);
     }
 
     /**
      * Moves the entity independently of user input.
      */
     public abstract void moveIndependently();
-}
\ No newline at end of file
+
+    /**
+     * Called by the store's timer system in the frame the entity's collision timeout runs out.
+     */
+    protected void onCollisionTimeoutEnded() {
+    }
+
+    /**
+     * Keeps the entity at the same place on the screen while the camera scrolls.
+     *
+     * @param distance The distance the camera scrolled this frame
+     */
+    @Override
+    public void followCamera(double distance) {
+        store.setPosition(id, store.getX(id), store.getY(id) - distance);
+    }
+
+    //getters and setters
+    @Override
+    public double getX() {
+        return store.getX(id);
+    }
+
+    @Override
+    public double getY() {
+        return store.getY(id);
+    }
+
+    @Override
+    public void setPosition(double x, double y) {
+        store.setPosition(id, x, y);
+    }
+
+    @Override
+    public double getRadius() {
+        return store.getRadius(id);
+    }
+
+    protected double getSpeedY() {
+        return store.getSpeedY(id);
+    }
+
+    protected void setSpeedY(double speedY) {
+        store.setSpeedY(id, speedY);
+    }
+}
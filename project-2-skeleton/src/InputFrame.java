@@ -0,0 +1,81 @@
+/**
+ * An immutable snapshot of the directional keys held during a single gameplay frame.
+ * Decouples the simulation from bagel's Input so frames can be driven without a window.
+ */
+public final class InputFrame {
+    private static final InputFrame[] FRAMES = new InputFrame[16];
+
+    static {
+        for (int i = 0; i < FRAMES.length; i++) {
+            FRAMES[i] = new InputFrame((i & 1) != 0, (i & 2) != 0, (i & 4) != 0, (i & 8) != 0);
+        }
+    }
+
+    /**
+     * An input frame with no keys held.
+     */
+    public static final InputFrame NONE = FRAMES[0];
+
+    private final boolean up;
+    private final boolean down;
+    private final boolean left;
+    private final boolean right;
+
+    private InputFrame(boolean up, boolean down, boolean left, boolean right) {
+        this.up = up;
+        this.down = down;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Gets the input frame for the given combination of held keys.
+     * Instances are shared, so no allocation happens per frame.
+     *
+     * @param up Whether the up arrow is held
+     * @param down Whether the down arrow is held
+     * @param left Whether the left arrow is held
+     * @param right Whether the right arrow is held
+     * @return The matching input frame
+     */
+    public static InputFrame of(boolean up, boolean down, boolean left, boolean right) {
+        return FRAMES[(up ? 1 : 0) | (down ? 2 : 0) | (left ? 4 : 0) | (right ? 8 : 0)];
+    }
+
+    //getters
+    /**
+     * Checks if the up arrow is held.
+     *
+     * @return true if the up arrow is held, false otherwise
+     */
+    public boolean isUp() {
+        return up;
+    }
+
+    /**
+     * Checks if the down arrow is held.
+     *
+     * @return true if the down arrow is held, false otherwise
+     */
+    public boolean isDown() {
+        return down;
+    }
+
+    /**
+     * Checks if the left arrow is held.
+     *
+     * @return true if the left arrow is held, false otherwise
+     */
+    public boolean isLeft() {
+        return left;
+    }
+
+    /**
+     * Checks if the right arrow is held.
+     *
+     * @return true if the right arrow is held, false otherwise
+     */
+    public boolean isRight() {
+        return right;
+    }
+}
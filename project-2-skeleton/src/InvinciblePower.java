@@ -1,11 +1,8 @@
-import bagel.util.Point;
-
 /**
  * Represents an invincibility power-up in the game.
  */
 public class InvinciblePower extends GameEntity implements PowerUp {
     private boolean isActive;
-    private double speedY;
 
     /**
      * Constructs a new InvinciblePower at the specified position.
@@ -14,12 +11,10 @@ public class InvinciblePower extends GameEntity implements PowerUp {
      * @param y The y-coordinate of the power-up's position
      * @param imagePath The file path to the power-up's image
      * @param radius The collision radius of the power-up
-     * @param speedY The vertical speed of the power-up
      */
-    public InvinciblePower(double x, double y, String imagePath, double radius, double speedY) {
+    public InvinciblePower(double x, double y, String imagePath, double radius) {
         super(x, y, imagePath, radius);
         this.isActive = true;
-        this.speedY = speedY;
     }
 
     /**
@@ -31,24 +26,25 @@ public class InvinciblePower extends GameEntity implements PowerUp {
     }
 
     /**
-     * Draws the power-up on the game screen if it's active.
+     * Draws the power-up into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void draw() {
+    public void draw(FrameSnapshot frame) {
         if (isActive) {
-            image.draw(position.x, position.y);
+            frame.addSprite(this, imagePath, x, y);
         }
     }
 
     /**
-     * Moves the power-up vertically based on game world scrolling.
+     * Gets the collision type of the power-up.
      *
-     * @param moveDown true if the game world is scrolling down, false otherwise
+     * @return The collision type
      */
-    public void moveVertically(boolean moveDown) {
-        if (moveDown) {
-            position = new Point(position.x, position.y + speedY);
-        }
+    @Override
+    public CollisionType getCollisionType() {
+        return CollisionType.INVINCIBLE_POWER;
     }
 
     /**
@@ -0,0 +1,142 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The y-coordinates of the traffic in each road lane, sorted so that a spawn slot can be checked
+ * for nearby cars with a binary search. Traffic keeps to its lane, so each car belongs to the
+ * lane whose centre is nearest to it.
+ * Cars move every frame but spawns are rare, so the index is brought up to date at most once a
+ * frame, on the first check of a frame that spawns, rather than tracking every move.
+ */
+public class LaneOccupancy {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final double[] laneXs;
+    private final double[][] ys;
+    private final int[] counts;
+    private int refreshedFrame;
+
+    /**
+     * Constructs a new, empty LaneOccupancy.
+     *
+     * @param laneXs The x-coordinates of the lane centres
+     */
+    public LaneOccupancy(double... laneXs) {
+        this.laneXs = laneXs.clone();
+        this.ys = new double[laneXs.length][INITIAL_CAPACITY];
+        this.counts = new int[laneXs.length];
+        clear();
+    }
+
+    /**
+     * Empties every lane, for the start of a new game.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        refreshedFrame = -1;
+    }
+
+    /**
+     * Rebuilds the lanes from the current traffic, unless they were already rebuilt this frame.
+     *
+     * @param frame The current frame
+     * @param cars The cars on the road
+     * @param enemyCars The enemy cars on the road
+     */
+    public void refresh(int frame, List<? extends Car> cars, List<? extends Car> enemyCars) {
+        if (frame == refreshedFrame) {
+            return;
+        }
+        refreshedFrame = frame;
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < cars.size(); i++) {
+            append(cars.get(i));
+        }
+        for (int i = 0; i < enemyCars.size(); i++) {
+            append(enemyCars.get(i));
+        }
+        for (int lane = 0; lane < laneXs.length; lane++) {
+            Arrays.sort(ys[lane], 0, counts[lane]);
+        }
+    }
+
+    /**
+     * Records a car spawned since the last refresh, keeping its lane sorted.
+     *
+     * @param x The x-coordinate of the car
+     * @param y The y-coordinate of the car
+     */
+    public void add(double x, double y) {
+        int lane = laneOf(x);
+        ensureCapacity(lane);
+        int index = lowerBound(lane, y);
+        System.arraycopy(ys[lane], index, ys[lane], index + 1, counts[lane] - index);
+        ys[lane][index] = y;
+        counts[lane]++;
+    }
+
+    /**
+     * Checks if no car in the lane at x lies within a clearance of y.
+     *
+     * @param x The x-coordinate of the slot
+     * @param y The y-coordinate of the slot
+     * @param clearance The distance along the lane that must be clear on either side
+     * @return true if the slot is free, false otherwise
+     */
+    public boolean isFree(double x, double y, double clearance) {
+        int lane = laneOf(x);
+        int index = lowerBound(lane, y - clearance);
+        return index == counts[lane] || ys[lane][index] >= y + clearance;
+    }
+
+    private void append(Car car) {
+        int lane = laneOf(car.getX());
+        ensureCapacity(lane);
+        ys[lane][counts[lane]++] = car.getY();
+    }
+
+    private void ensureCapacity(int lane) {
+        if (counts[lane] == ys[lane].length) {
+            ys[lane] = Arrays.copyOf(ys[lane], counts[lane] * 2);
+        }
+    }
+
+    /*
+    method to find the first car in a lane at or below a y-coordinate
+     */
+    private int lowerBound(int lane, double y) {
+        double[] laneYs = ys[lane];
+        int low = 0;
+        int high = counts[lane];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (laneYs[mid] < y) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int laneOf(double x) {
+        int nearest = 0;
+        for (int lane = 1; lane < laneXs.length; lane++) {
+            if (Math.abs(x - laneXs[lane]) < Math.abs(x - laneXs[nearest])) {
+                nearest = lane;
+            }
+        }
+        return nearest;
+    }
+
+    //getters
+    /**
+     * Gets the number of cars recorded in a lane.
+     *
+     * @param lane The index of the lane, in the order the lane centres were given
+     * @return The number of cars in the lane
+     */
+    public int getCount(int lane) {
+        return counts[lane];
+    }
+}
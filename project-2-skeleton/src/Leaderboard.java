@@ -0,0 +1,279 @@
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The highest scores recorded in the scores file, loaded once and then kept up to date in memory.
+ * Only the top entries are kept, along with a count of every distinct recorded score, so the file is
+ * streamed through a bounded heap however many rows it holds. The top entries are a concurrent set
+ * and the counts are guarded by their own lock, so the scores can be read from one thread while
+ * another records a new one.
+ */
+public class Leaderboard {
+    private static final Comparator<ScoreEntry> BEST_FIRST =
+            Comparator.comparingDouble(ScoreEntry::getScore).reversed()
+                    .thenComparingLong(ScoreEntry::getSequence);
+
+    private final int capacity;
+    private final ConcurrentSkipListSet<ScoreEntry> topEntries;
+    private final ScoreCounts scoreCounts;
+    private final AtomicLong nextSequence;
+
+    /**
+     * Constructs a new Leaderboard and loads the scores already recorded in a file.
+     *
+     * @param scoresFile The path to the scores CSV file, with one name and score per line
+     * @param capacity The number of top entries to keep
+     */
+    public Leaderboard(String scoresFile, int capacity) {
+        this.capacity = capacity;
+        this.topEntries = new ConcurrentSkipListSet<>(BEST_FIRST);
+        this.scoreCounts = new ScoreCounts();
+        this.nextSequence = new AtomicLong();
+        load(scoresFile);
+    }
+
+    /*
+    method to stream the scores file, keeping only the best entries in a heap whose root is the worst of them
+     */
+    private void load(String scoresFile) {
+        PriorityQueue<ScoreEntry> best = new PriorityQueue<>(capacity + 1, BEST_FIRST.reversed());
+        Map<Double, Long> counts = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(scoresFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length == 2) {
+                    double score = Double.parseDouble(fields[1]);
+                    long sequence = nextSequence.getAndIncrement();
+                    counts.merge(score, 1L, Long::sum);
+                    //a later entry only displaces the worst kept entry with a strictly higher score
+                    if (best.size() < capacity || score > best.peek().getScore()) {
+                        best.add(new ScoreEntry(fields[0], score, sequence));
+                        if (best.size() > capacity) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        } catch (FileNotFoundException ex) {
+            //no scores have been recorded yet
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        scoreCounts.load(counts);
+        topEntries.addAll(best);
+    }
+
+    /**
+     * Records a new score, after it has been written to the scores file.
+     *
+     * @param name The player's name
+     * @param score The score
+     */
+    public void record(String name, double score) {
+        scoreCounts.add(score);
+        topEntries.add(new ScoreEntry(name, score, nextSequence.getAndIncrement()));
+        while (topEntries.size() > capacity) {
+            topEntries.pollLast();
+        }
+    }
+
+    //getters
+    /**
+     * Gets the top entries, best first. Equal scores are ordered by when they were recorded.
+     *
+     * @return A snapshot of the top entries
+     */
+    public List<ScoreEntry> getTopEntries() {
+        return new ArrayList<>(topEntries);
+    }
+
+    /**
+     * Gets the position a score holds among all recorded scores, counting from 1, in time logarithmic
+     * in the number of distinct scores. Scores equal to other scores share the best position among them.
+     *
+     * @param score The score
+     * @return One more than the number of recorded scores strictly higher than the score
+     */
+    public long getRank(double score) {
+        return scoreCounts.countHigher(score) + 1;
+    }
+
+    /**
+     * Gets the number of scores recorded, including those loaded from the file.
+     *
+     * @return The number of scores
+     */
+    public long getScoreCount() {
+        return nextSequence.get();
+    }
+
+    /**
+     * A single name and score in the leaderboard.
+     */
+    public static class ScoreEntry {
+        private final String name;
+        private final double score;
+        private final long sequence;
+
+        private ScoreEntry(String name, double score, long sequence) {
+            this.name = name;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        //getters
+        /**
+         * Gets the name of the player who recorded the score.
+         *
+         * @return The player's name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the score recorded.
+         *
+         * @return The score
+         */
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * Gets the order in which the score was recorded, used to break ties.
+         *
+         * @return The recording sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * The number of times each distinct score has been recorded. The distinct scores are kept best first
+     * in a sorted array, with a Fenwick tree over their counts, so the scores higher than any score are
+     * found by a binary search and counted in logarithmic time. A score not recorded before is inserted
+     * by rebuilding the tree, which costs time linear in the number of distinct scores, but happens at
+     * most once per game played.
+     */
+    private static class ScoreCounts {
+        private double[] scores = new double[0];
+        private long[] counts = new long[0];
+        //tree[i] sums the counts of the i & -i scores ending at position i - 1
+        private long[] tree = new long[1];
+        private int size;
+
+        /*
+        method to replace the counts with those of the scores read from the file
+         */
+        synchronized void load(Map<Double, Long> scoreCounts) {
+            size = scoreCounts.size();
+            scores = new double[size];
+            int i = 0;
+            for (double score : scoreCounts.keySet()) {
+                scores[i++] = score;
+            }
+            Arrays.sort(scores);
+            reverse(scores, size);
+            counts = new long[size];
+            for (i = 0; i < size; i++) {
+                counts[i] = scoreCounts.get(scores[i]);
+            }
+            rebuild();
+        }
+
+        /*
+        method to count one more recording of a score
+         */
+        synchronized void add(double score) {
+            int position = firstNotAbove(score);
+            if (position == size || Double.compare(scores[position], score) != 0) {
+                insert(position, score);
+            }
+            counts[position]++;
+            for (int i = position + 1; i <= size; i += i & -i) {
+                tree[i]++;
+            }
+        }
+
+        /*
+        method to count the recorded scores strictly higher than a score
+         */
+        synchronized long countHigher(double score) {
+            long higher = 0;
+            for (int i = firstNotAbove(score); i > 0; i -= i & -i) {
+                higher += tree[i];
+            }
+            return higher;
+        }
+
+        /*
+        method to find the position of the first score no higher than a score, or size if there is none
+         */
+        private int firstNotAbove(double score) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (Double.compare(scores[middle], score) > 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void insert(int position, double score) {
+            if (size == scores.length) {
+                int capacity = Math.max(1, size * 2);
+                scores = Arrays.copyOf(scores, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            System.arraycopy(scores, position, scores, position + 1, size - position);
+            System.arraycopy(counts, position, counts, position + 1, size - position);
+            scores[position] = score;
+            counts[position] = 0;
+            size++;
+            rebuild();
+        }
+
+        /*
+        method to build the Fenwick tree over the counts, in linear time
+         */
+        private void rebuild() {
+            if (tree.length < scores.length + 1) {
+                tree = new long[scores.length + 1];
+            }
+            Arrays.fill(tree, 0);
+            for (int i = 1; i <= size; i++) {
+                tree[i] += counts[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= size) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        private static void reverse(double[] values, int length) {
+            for (int i = 0, j = length - 1; i < j; i++, j--) {
+                double value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+        }
+    }
+}
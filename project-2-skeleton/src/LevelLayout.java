@@ -0,0 +1,329 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The level objects listed in gameObjects.csv, held as compact records instead of entities.
+ * Passengers, coins and power-ups are sorted from the bottom of the level to the top, so the
+ * game can materialise each one only when the camera comes within reach of it.
+ * The taxi and driver rows are kept separately, since they exist from the first frame.
+ */
+public class LevelLayout {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The kinds of level object that are activated lazily.
+     */
+    public enum Kind { PASSENGER, COIN, INVINCIBLE_POWER }
+
+    private double taxiX;
+    private double taxiY;
+    private double driverX;
+    private double driverY;
+
+    private int count;
+    private Kind[] kinds;
+    private double[] xs;
+    private double[] ys;
+    private int[] priorities;
+    private double[] endXs;
+    private double[] yDistances;
+    private boolean[] umbrellas;
+
+    private int next;
+
+    private LevelLayout() {
+        kinds = new Kind[INITIAL_CAPACITY];
+        xs = new double[INITIAL_CAPACITY];
+        ys = new double[INITIAL_CAPACITY];
+        priorities = new int[INITIAL_CAPACITY];
+        endXs = new double[INITIAL_CAPACITY];
+        yDistances = new double[INITIAL_CAPACITY];
+        umbrellas = new boolean[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Reads a level from a game objects file, one row at a time.
+     *
+     * @param file The path to the game objects CSV file
+     * @return The level layout, ready to activate from the bottom
+     */
+    public static LevelLayout fromFile(String file) {
+        LevelLayout layout = new LevelLayout();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    layout.addRow(line.split(","));
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        layout.sortByY();
+        return layout;
+    }
+
+    /*
+    method to store one CSV row as a record
+     */
+    private void addRow(String[] row) {
+        double x = Double.parseDouble(row[1]);
+        double y = Double.parseDouble(row[2]);
+        switch (row[0]) {
+            case "TAXI":
+                taxiX = x;
+                taxiY = y;
+                break;
+            case "DRIVER":
+                driverX = x;
+                driverY = y;
+                break;
+            case "PASSENGER":
+                int index = add(Kind.PASSENGER, x, y);
+                priorities[index] = Integer.parseInt(row[3]);
+                endXs[index] = Double.parseDouble(row[4]);
+                yDistances[index] = Double.parseDouble(row[5]);
+                umbrellas[index] = row[6].equals("1");
+                break;
+            case "COIN":
+                add(Kind.COIN, x, y);
+                break;
+            case "INVINCIBLE_POWER":
+                add(Kind.INVINCIBLE_POWER, x, y);
+                break;
+        }
+    }
+
+    private int add(Kind kind, double x, double y) {
+        if (count == kinds.length) {
+            int capacity = count * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            endXs = Arrays.copyOf(endXs, capacity);
+            yDistances = Arrays.copyOf(yDistances, capacity);
+            umbrellas = Arrays.copyOf(umbrellas, capacity);
+        }
+        kinds[count] = kind;
+        xs[count] = x;
+        ys[count] = y;
+        return count++;
+    }
+
+    /*
+    method to reorder the records by descending y, keeping file order between equal y-coordinates
+     */
+    private void sortByY() {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        mergeSort(order, new int[count], 0, count);
+
+        Kind[] sortedKinds = new Kind[count];
+        double[] sortedXs = new double[count];
+        double[] sortedYs = new double[count];
+        int[] sortedPriorities = new int[count];
+        double[] sortedEndXs = new double[count];
+        double[] sortedYDistances = new double[count];
+        boolean[] sortedUmbrellas = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            int from = order[i];
+            sortedKinds[i] = kinds[from];
+            sortedXs[i] = xs[from];
+            sortedYs[i] = ys[from];
+            sortedPriorities[i] = priorities[from];
+            sortedEndXs[i] = endXs[from];
+            sortedYDistances[i] = yDistances[from];
+            sortedUmbrellas[i] = umbrellas[from];
+        }
+        kinds = sortedKinds;
+        xs = sortedXs;
+        ys = sortedYs;
+        priorities = sortedPriorities;
+        endXs = sortedEndXs;
+        yDistances = sortedYDistances;
+        umbrellas = sortedUmbrellas;
+    }
+
+    /*
+    method to stably sort record indexes by descending y
+     */
+    private void mergeSort(int[] order, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid);
+        mergeSort(order, buffer, mid, to);
+        if (ys[order[mid - 1]] >= ys[order[mid]]) {
+            return;
+        }
+
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && ys[order[left]] >= ys[order[right]])) {
+                buffer[i] = order[left++];
+            } else {
+                buffer[i] = order[right++];
+            }
+        }
+        System.arraycopy(buffer, from, order, from, to - from);
+    }
+
+    /**
+     * Moves back to the bottom of the level, so every record can be activated again.
+     */
+    public void rewind() {
+        next = 0;
+    }
+
+    /**
+     * Checks if the next record to activate lies at or below a world y-coordinate.
+     *
+     * @param worldY The world y-coordinate of the top of the activation window
+     * @return true if there is a record to activate, false otherwise
+     */
+    public boolean hasNextBelow(double worldY) {
+        return next < count && ys[next] >= worldY;
+    }
+
+    /**
+     * Takes the next record to activate.
+     *
+     * @return The index of the record
+     */
+    public int next() {
+        return next++;
+    }
+
+    //getters
+    /**
+     * Gets the number of passenger, coin and power-up records in the level.
+     *
+     * @return The number of records
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the number of records not yet activated.
+     *
+     * @return The number of pending records
+     */
+    public int getPendingCount() {
+        return count - next;
+    }
+
+    /**
+     * Gets the x-coordinate of the taxi's starting position.
+     *
+     * @return The taxi x-coordinate
+     */
+    public double getTaxiX() {
+        return taxiX;
+    }
+
+    /**
+     * Gets the y-coordinate of the taxi's starting position.
+     *
+     * @return The taxi y-coordinate
+     */
+    public double getTaxiY() {
+        return taxiY;
+    }
+
+    /**
+     * Gets the x-coordinate of the driver's starting position.
+     *
+     * @return The driver x-coordinate
+     */
+    public double getDriverX() {
+        return driverX;
+    }
+
+    /**
+     * Gets the y-coordinate of the driver's starting position.
+     *
+     * @return The driver y-coordinate
+     */
+    public double getDriverY() {
+        return driverY;
+    }
+
+    /**
+     * Gets the kind of level object a record describes.
+     *
+     * @param index The index of the record
+     * @return The kind of object
+     */
+    public Kind getKind(int index) {
+        return kinds[index];
+    }
+
+    /**
+     * Gets the x-coordinate of a record.
+     *
+     * @param index The index of the record
+     * @return The x-coordinate
+     */
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Gets the y-coordinate of a record.
+     *
+     * @param index The index of the record
+     * @return The y-coordinate
+     */
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Gets the starting priority of a passenger record.
+     *
+     * @param index The index of the record
+     * @return The priority
+     */
+    public int getPriority(int index) {
+        return priorities[index];
+    }
+
+    /**
+     * Gets the x-coordinate of a passenger record's trip end.
+     *
+     * @param index The index of the record
+     * @return The trip end x-coordinate
+     */
+    public double getEndX(int index) {
+        return endXs[index];
+    }
+
+    /**
+     * Gets the distance from a passenger record's position to its trip end.
+     *
+     * @param index The index of the record
+     * @return The trip distance along y
+     */
+    public double getYDistance(int index) {
+        return yDistances[index];
+    }
+
+    /**
+     * Checks if a passenger record has an umbrella.
+     *
+     * @param index The index of the record
+     * @return true if the passenger has an umbrella, false otherwise
+     */
+    public boolean hasUmbrella(int index) {
+        return umbrellas[index];
+    }
+}
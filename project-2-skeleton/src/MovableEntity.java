@@ -1,6 +1,3 @@
-import bagel.Input;
-import bagel.util.Point;
-
 /**
  * Represents a game entity that can move based on user input or game logic.
  */
@@ -27,19 +24,19 @@ public abstract class MovableEntity extends GameEntity {
     /**
      * Skeleton Method to move the entity based on user input.
      *
-     * @param input The current keyboard input
+     * @param input The directional keys held this frame
+     * @param camera The camera the entity is viewed through
      */
-    public void move(Input input) {
+    public void move(InputFrame input, Camera camera) {
     }
 
     /**
-     * Moves the entity vertically based on game world scrolling speed.
+     * Keeps the entity at the same place on the screen while the camera scrolls.
+     * Only entities anchored to the screen rather than the road need this.
      *
-     * @param moveDown true if the game world is scrolling down, false otherwise
+     * @param distance The distance the camera scrolled this frame
      */
-    public void moveVertically(boolean moveDown) {
-        if (moveDown) {
-            position = new Point(position.x, position.y + speedY);
-        }
+    public void followCamera(double distance) {
+        y -= distance;
     }
 }
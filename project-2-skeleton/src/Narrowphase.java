@@ -0,0 +1,224 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The narrowphase of a grid's collision pass, split across worker threads once the grid holds enough
+ * entities. Each worker takes a range of the grid's slots, queries the grids of every type they
+ * interact with, and keeps the candidate pairs whose circles overlap in a contact list of its own.
+ * A worker finds its contacts in the order the serial pass meets them, by slot, then type in the
+ * collision matrix's order, then other slot, and the ranges follow each other, so joining the lists
+ * in range order gives the canonical order the responses are applied in. Finding contacts changes
+ * nothing, so the responses, and the damage and effects they cause, are the same as the serial pass's.
+ * The workers are those of the common ForkJoin pool, shared with the rest of the game, so no threads
+ * are started or left behind by a world.
+ */
+public class Narrowphase {
+    private static final CollisionType[] COLLISION_TYPES = CollisionType.values();
+    private static final int INITIAL_CAPACITY = 16;
+    //a few ranges per worker, so that one dense stretch of road does not hold up the rest
+    private static final int SLICES_PER_WORKER = 4;
+
+    private final SpatialHash<?>[] grids;
+    private final CollisionMatrix collisions;
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int sliceCount;
+
+    private final List<Slice> slices;
+    private final FindContacts findContacts;
+
+    //the grid being tested, set before the slices are forked
+    private SpatialHash<?> grid;
+    private int type;
+
+    //merged contacts, in canonical order
+    private int[] slots;
+    private int[] otherTypes;
+    private int[] otherSlots;
+    private int contactCount;
+
+    /**
+     * Constructs a new Narrowphase over the broadphase grids of a world.
+     *
+     * @param grids The grid of each collision type, indexed by type id
+     * @param collisions The collision matrix, which says which types interact
+     * @param threshold The number of entities in a grid from which its narrowphase runs in parallel
+     * @param parallelism The number of workers a grid's slots are split between, at most the common pool's
+     */
+    public Narrowphase(SpatialHash<?>[] grids, CollisionMatrix collisions, int threshold, int parallelism) {
+        this.grids = grids;
+        this.collisions = collisions;
+        this.pool = ForkJoinPool.commonPool();
+        this.threshold = threshold;
+        this.sliceCount = Math.min(parallelism, pool.getParallelism()) * SLICES_PER_WORKER;
+        this.slices = new ArrayList<>();
+        for (int i = 0; i < sliceCount; i++) {
+            slices.add(new Slice());
+        }
+        this.findContacts = new FindContacts();
+        this.slots = new int[INITIAL_CAPACITY];
+        this.otherTypes = new int[INITIAL_CAPACITY];
+        this.otherSlots = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Checks if a grid holds enough entities for its narrowphase to run in parallel.
+     *
+     * @param grid The grid
+     * @return true if findContacts should be used for the grid, false otherwise
+     */
+    public boolean isWorthwhile(SpatialHash<?> grid) {
+        return grid.size() >= threshold;
+    }
+
+    /**
+     * Finds every overlapping pair between an entity left in a grid and an entity it interacts with
+     * of the same or a higher type id. A pair of the same type is found once, from the lower slot.
+     * The grids must not change until the call returns.
+     *
+     * @param grid The grid, which must not be empty
+     * @return The number of contacts found
+     */
+    public int findContacts(SpatialHash<?> grid) {
+        this.grid = grid;
+        this.type = grid.get(0).getCollisionType().ordinal();
+        int sliceSize = (grid.size() + sliceCount - 1) / sliceCount;
+        for (int i = 0; i < sliceCount; i++) {
+            Slice slice = slices.get(i);
+            slice.reinitialize();
+            slice.from = Math.min(i * sliceSize, grid.size());
+            slice.to = Math.min(slice.from + sliceSize, grid.size());
+        }
+        findContacts.reinitialize();
+        pool.invoke(findContacts);
+
+        contactCount = 0;
+        for (int i = 0; i < sliceCount; i++) {
+            Slice slice = slices.get(i);
+            int count = contactCount + slice.contactCount;
+            if (count > slots.length) {
+                int capacity = Math.max(count, slots.length * 2);
+                slots = Arrays.copyOf(slots, capacity);
+                otherTypes = Arrays.copyOf(otherTypes, capacity);
+                otherSlots = Arrays.copyOf(otherSlots, capacity);
+            }
+            System.arraycopy(slice.slots, 0, slots, contactCount, slice.contactCount);
+            System.arraycopy(slice.otherTypes, 0, otherTypes, contactCount, slice.contactCount);
+            System.arraycopy(slice.otherSlots, 0, otherSlots, contactCount, slice.contactCount);
+            contactCount = count;
+        }
+        this.grid = null;
+        return contactCount;
+    }
+
+    //getters
+    /**
+     * Gets the number of contacts found by the last call to findContacts.
+     *
+     * @return The number of contacts
+     */
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    /**
+     * Gets the slot, in the grid tested, of the first entity of a contact.
+     *
+     * @param index The index of the contact, between 0 and getContactCount() - 1
+     * @return The slot
+     */
+    public int getSlot(int index) {
+        return slots[index];
+    }
+
+    /**
+     * Gets the type id of the second entity of a contact, which is also the grid it is in.
+     *
+     * @param index The index of the contact, between 0 and getContactCount() - 1
+     * @return The type id
+     */
+    public int getOtherType(int index) {
+        return otherTypes[index];
+    }
+
+    /**
+     * Gets the slot, in the grid of its type, of the second entity of a contact.
+     *
+     * @param index The index of the contact, between 0 and getContactCount() - 1
+     * @return The slot
+     */
+    public int getOtherSlot(int index) {
+        return otherSlots[index];
+    }
+
+    /**
+     * The root of a parallel narrowphase, which forks every slice and waits for them all.
+     */
+    private class FindContacts extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(slices);
+        }
+    }
+
+    /**
+     * A range of the grid's slots tested by one task, with its own query buffer and contact list.
+     */
+    private class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SpatialHash.Results results = new SpatialHash.Results();
+        private int from;
+        private int to;
+
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int[] otherTypes = new int[INITIAL_CAPACITY];
+        private int[] otherSlots = new int[INITIAL_CAPACITY];
+        private int contactCount;
+
+        @Override
+        protected void compute() {
+            contactCount = 0;
+            CollisionType collisionType = COLLISION_TYPES[type];
+            for (int slot = from; slot < to; slot++) {
+                if (grid.isRemoved(slot)) {
+                    continue;
+                }
+                GameEntity entity = grid.get(slot);
+                for (int partner = 0; partner < collisions.getPartnerCount(collisionType); partner++) {
+                    int otherType = collisions.getPartner(collisionType, partner);
+                    SpatialHash<?> otherGrid = grids[otherType];
+                    otherGrid.query(entity.getX(), entity.getY(), entity.getRadius(), results);
+                    for (int i = 0; i < results.size(); i++) {
+                        int otherSlot = results.get(i);
+                        if (otherType == type && otherSlot <= slot) {
+                            continue;
+                        }
+                        if (entity.collidesWith(otherGrid.get(otherSlot))) {
+                            addContact(slot, otherType, otherSlot);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void addContact(int slot, int otherType, int otherSlot) {
+            if (contactCount == slots.length) {
+                int capacity = contactCount * 2;
+                slots = Arrays.copyOf(slots, capacity);
+                otherTypes = Arrays.copyOf(otherTypes, capacity);
+                otherSlots = Arrays.copyOf(otherSlots, capacity);
+            }
+            slots[contactCount] = slot;
+            otherTypes[contactCount] = otherType;
+            otherSlots[contactCount] = otherSlot;
+            contactCount++;
+        }
+    }
+}
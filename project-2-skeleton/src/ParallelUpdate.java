@@ -0,0 +1,265 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The per-frame update of cars, enemy cars and fireballs split into a compute phase and a commit phase,
+ * for worlds with more of them than one thread keeps up with.
+ * In the compute phase, the rows of each EntityStore are cut into chunks that run on the ForkJoin pool.
+ * Each chunk steps and moves only its own rows, and writes what it finds into its own buffers: the
+ * enemy cars due to shoot, and the entities to despawn. The commit phase then reads the buffers in
+ * row order on the simulation thread, and makes the changes every chunk shares in the same order as
+ * the serial update, so both give the same game.
+ * Below the entity-count threshold the world updates serially, since forking costs more than it saves.
+ */
+public class ParallelUpdate {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final EntityStore<Car> cars;
+    private final EntityStore<EnemyCar> enemyCars;
+    private final EntityStore<Fireball> fireballs;
+    private final EntityLifecycle lifecycle;
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int chunkSize;
+
+    private final List<Chunk> chunks;
+    private final List<Chunk> activeChunks;
+    private final ComputePhase computePhase;
+
+    //the frame being computed, set before the chunks are forked
+    private double scrollDistance;
+    private int currentFrame;
+    private Camera camera;
+
+    //merged results, in row order
+    private int[] firingRows;
+    private int firingCount;
+    private int[] despawnedRows;
+
+    /**
+     * Constructs a new ParallelUpdate for the world's dynamic entities.
+     *
+     * @param cars The cars
+     * @param enemyCars The enemy cars
+     * @param fireballs The fireballs
+     * @param lifecycle The lifecycle the entities are swept by
+     * @param threshold The number of dynamic entities from which the update runs in parallel
+     * @param chunkSize The number of rows each parallel task updates
+     */
+    public ParallelUpdate(EntityStore<Car> cars, EntityStore<EnemyCar> enemyCars, EntityStore<Fireball> fireballs,
+                          EntityLifecycle lifecycle, int threshold, int chunkSize) {
+        this.cars = cars;
+        this.enemyCars = enemyCars;
+        this.fireballs = fireballs;
+        this.lifecycle = lifecycle;
+        this.pool = ForkJoinPool.commonPool();
+        this.threshold = threshold;
+        this.chunkSize = chunkSize;
+        this.chunks = new ArrayList<>();
+        this.activeChunks = new ArrayList<>();
+        this.computePhase = new ComputePhase();
+        this.firingRows = new int[INITIAL_CAPACITY];
+        this.despawnedRows = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Checks if there are enough dynamic entities for the parallel update to pay off.
+     *
+     * @return true if the world should update its dynamic entities in parallel, false otherwise
+     */
+    public boolean isWorthwhile() {
+        return cars.size() + enemyCars.size() + fireballs.size() >= threshold;
+    }
+
+    /**
+     * Runs the compute phase: ends the collision timeouts due this frame, then steps and moves every
+     * car, enemy car and fireball in parallel, finding the enemy cars due to shoot and the entities
+     * to despawn. Fireballs shot afterwards are left to the caller.
+     *
+     * @param scrollDistance The distance the camera scrolled this frame
+     * @param currentFrame The current frame
+     * @param camera The camera the world is viewed through, which must not move until the sweeps are done
+     */
+    public void compute(double scrollDistance, int currentFrame, Camera camera) {
+        //new speeds are drawn in list order, so timeouts end serially first
+        cars.endExpiredTimeouts();
+        enemyCars.endExpiredTimeouts();
+
+        this.scrollDistance = scrollDistance;
+        this.currentFrame = currentFrame;
+        this.camera = camera;
+        activeChunks.clear();
+        addChunks(cars);
+        addChunks(enemyCars);
+        addChunks(fireballs);
+        computePhase.reinitialize();
+        pool.invoke(computePhase);
+
+        firingCount = 0;
+        for (int c = 0; c < activeChunks.size(); c++) {
+            Chunk chunk = activeChunks.get(c);
+            chunk.store.separationsEnded(chunk.separationsEnded);
+            if (firingCount + chunk.firingCount > firingRows.length) {
+                firingRows = Arrays.copyOf(firingRows, Math.max(firingCount + chunk.firingCount, firingRows.length * 2));
+            }
+            System.arraycopy(chunk.firingRows, 0, firingRows, firingCount, chunk.firingCount);
+            firingCount += chunk.firingCount;
+        }
+    }
+
+    /*
+    method to cut the rows of a store into chunks for the compute phase
+     */
+    private void addChunks(EntityStore<?> store) {
+        for (int from = 0; from < store.size(); from += chunkSize) {
+            if (activeChunks.size() == chunks.size()) {
+                chunks.add(new Chunk());
+            }
+            Chunk chunk = chunks.get(activeChunks.size());
+            chunk.reinitialize();
+            chunk.store = store;
+            chunk.from = from;
+            chunk.to = Math.min(from + chunkSize, store.size());
+            activeChunks.add(chunk);
+        }
+    }
+
+    /**
+     * Runs the commit half of a store's lifecycle sweep, removing the entities the compute phase found
+     * to despawn in list order. Entities added since the compute phase are sorted here.
+     *
+     * @param store The store to sweep
+     * @param pool The pool the store's entities came from
+     * @param <T> The type of entity
+     */
+    public <T extends IndependentlyMovableEntity> void sweep(EntityStore<T> store, EntityPool<T> pool) {
+        int despawned = 0;
+        int culled = 0;
+        int computed = 0;
+        for (int c = 0; c < activeChunks.size(); c++) {
+            Chunk chunk = activeChunks.get(c);
+            if (chunk.store != store) {
+                continue;
+            }
+            despawned = addDespawnedRows(chunk.despawnedRows, chunk.despawnedCount, despawned);
+            culled += chunk.culledCount;
+            computed = chunk.to;
+        }
+        for (int row = computed; row < store.size(); row++) {
+            double y = store.getY(row);
+            if (lifecycle.isDespawned(y, camera)) {
+                ensureDespawnedCapacity(despawned + 1);
+                despawnedRows[despawned++] = row;
+            } else if (lifecycle.isCulled(y, camera)) {
+                culled++;
+            }
+        }
+        lifecycle.sweepRows(store, pool, despawnedRows, despawned, culled);
+    }
+
+    private int addDespawnedRows(int[] rows, int count, int despawned) {
+        ensureDespawnedCapacity(despawned + count);
+        System.arraycopy(rows, 0, despawnedRows, despawned, count);
+        return despawned + count;
+    }
+
+    private void ensureDespawnedCapacity(int capacity) {
+        if (capacity > despawnedRows.length) {
+            despawnedRows = Arrays.copyOf(despawnedRows, Math.max(capacity, despawnedRows.length * 2));
+        }
+    }
+
+    //getters
+    /**
+     * Gets the number of enemy cars the compute phase found due to shoot.
+     *
+     * @return The number of enemy cars to shoot
+     */
+    public int getFiringCount() {
+        return firingCount;
+    }
+
+    /**
+     * Gets the position in the list of an enemy car due to shoot. Positions ascend with the index.
+     *
+     * @param index The index of the enemy car, between 0 and getFiringCount() - 1
+     * @return The position of the enemy car
+     */
+    public int getFiringRow(int index) {
+        return firingRows[index];
+    }
+
+    /**
+     * The root of the compute phase, which forks every chunk and waits for them all.
+     */
+    private class ComputePhase extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(activeChunks);
+        }
+    }
+
+    /**
+     * A range of a store's rows updated by one task, with buffers for what it finds.
+     */
+    private class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private EntityStore<?> store;
+        private int from;
+        private int to;
+
+        private int separationsEnded;
+        private int[] firingRows = new int[INITIAL_CAPACITY];
+        private int firingCount;
+        private int[] despawnedRows = new int[INITIAL_CAPACITY];
+        private int despawnedCount;
+        private int culledCount;
+
+        @Override
+        protected void compute() {
+            separationsEnded = 0;
+            firingCount = 0;
+            despawnedCount = 0;
+            culledCount = 0;
+
+            if (store == fireballs) {
+                //every fireball here was in flight before this frame, so all of them follow the camera
+                fireballs.moveProjectiles(from, to, scrollDistance, to);
+            } else {
+                if (store.isSeparating()) {
+                    separationsEnded = store.stepSeparations(from, to);
+                }
+                store.moveTraffic(from, to, scrollDistance);
+            }
+            if (store == enemyCars) {
+                for (int row = from; row < to; row++) {
+                    if (currentFrame >= enemyCars.get(row).getNextFireFrame()) {
+                        if (firingCount == firingRows.length) {
+                            firingRows = Arrays.copyOf(firingRows, firingCount * 2);
+                        }
+                        firingRows[firingCount++] = row;
+                    }
+                }
+            }
+
+            for (int row = from; row < to; row++) {
+                double y = store.getY(row);
+                if (lifecycle.isDespawned(y, camera)) {
+                    if (despawnedCount == despawnedRows.length) {
+                        despawnedRows = Arrays.copyOf(despawnedRows, despawnedCount * 2);
+                    }
+                    despawnedRows[despawnedCount++] = row;
+                } else if (lifecycle.isCulled(y, camera)) {
+                    culledCount++;
+                }
+            }
+        }
+    }
+}
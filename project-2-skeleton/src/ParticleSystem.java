@@ -0,0 +1,239 @@
+/**
+ * The collision effects on screen, held as fixed-capacity ring buffers of positions and lifetimes,
+ * one buffer per effect type. An effect emitted close to a live effect of the same type refreshes
+ * that effect instead of adding another, a full buffer overwrites its oldest effect, and a global
+ * budget caps the effects on screen across all types. Updating and drawing therefore costs at most
+ * the budget, however many collisions happen in a frame.
+ */
+public class ParticleSystem {
+    private static final EffectType[] TYPES = EffectType.values();
+
+    private final String[] imagePaths;
+    private final int[] ttls;
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int[][] remainingFrames;
+    private final int[] starts;
+    private final int[] counts;
+
+    private final int budget;
+    private final double coalesceDistanceSquared;
+    private int liveCount;
+
+    private long emittedCount;
+    private long coalescedCount;
+    private long evictedCount;
+    private long droppedCount;
+
+    /**
+     * Constructs a new ParticleSystem with the buffer sizes, lifetimes and limits of the game configuration.
+     *
+     * @param config The compiled game settings
+     */
+    public ParticleSystem(GameConfig config) {
+        int typeCount = TYPES.length;
+        imagePaths = new String[typeCount];
+        ttls = new int[typeCount];
+        xs = new double[typeCount][];
+        ys = new double[typeCount][];
+        remainingFrames = new int[typeCount][];
+        starts = new int[typeCount];
+        counts = new int[typeCount];
+        for (EffectType type : TYPES) {
+            GameConfig.EffectConfig effect = getEffectConfig(config, type);
+            int t = type.ordinal();
+            imagePaths[t] = effect.image;
+            ttls[t] = effect.ttl;
+            xs[t] = new double[effect.capacity];
+            ys[t] = new double[effect.capacity];
+            remainingFrames[t] = new int[effect.capacity];
+        }
+        budget = config.particleBudget;
+        coalesceDistanceSquared = config.particleCoalesceDistance * config.particleCoalesceDistance;
+    }
+
+    private static GameConfig.EffectConfig getEffectConfig(GameConfig config, EffectType type) {
+        switch (type) {
+            case SMOKE:
+                return config.smoke;
+            case FIRE:
+                return config.fire;
+            default:
+                return config.blood;
+        }
+    }
+
+    /**
+     * Shows an effect at a position, for the lifetime of its type.
+     *
+     * @param x The x-coordinate of the effect
+     * @param y The y-coordinate of the effect
+     * @param type The type of effect
+     */
+    public void emit(double x, double y, EffectType type) {
+        int t = type.ordinal();
+        int capacity = xs[t].length;
+        emittedCount++;
+
+        //an effect close to a live one of the same type moves it and restarts its lifetime
+        for (int i = 0; i < counts[t]; i++) {
+            int slot = (starts[t] + i) % capacity;
+            double dx = xs[t][slot] - x;
+            double dy = ys[t][slot] - y;
+            if (dx * dx + dy * dy <= coalesceDistanceSquared) {
+                xs[t][slot] = x;
+                ys[t][slot] = y;
+                remainingFrames[t][slot] = ttls[t];
+                coalescedCount++;
+                return;
+            }
+        }
+
+        if (counts[t] == capacity || liveCount >= budget) {
+            if (counts[t] == 0) {
+                droppedCount++;
+                return;
+            }
+            starts[t] = (starts[t] + 1) % capacity;
+            counts[t]--;
+            liveCount--;
+            evictedCount++;
+        }
+
+        int slot = (starts[t] + counts[t]) % capacity;
+        xs[t][slot] = x;
+        ys[t][slot] = y;
+        remainingFrames[t][slot] = ttls[t];
+        counts[t]++;
+        liveCount++;
+    }
+
+    /**
+     * Ages every effect by a frame, removing the effects whose lifetime has run out.
+     * The remaining effects keep their order, oldest first.
+     */
+    public void update() {
+        for (int t = 0; t < TYPES.length; t++) {
+            int capacity = xs[t].length;
+            int kept = 0;
+            for (int i = 0; i < counts[t]; i++) {
+                int slot = (starts[t] + i) % capacity;
+                if (--remainingFrames[t][slot] > 0) {
+                    int target = (starts[t] + kept) % capacity;
+                    xs[t][target] = xs[t][slot];
+                    ys[t][target] = ys[t][slot];
+                    remainingFrames[t][target] = remainingFrames[t][slot];
+                    kept++;
+                }
+            }
+            liveCount -= counts[t] - kept;
+            counts[t] = kept;
+        }
+    }
+
+    /**
+     * Draws every live effect into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
+     */
+    public void draw(FrameSnapshot frame) {
+        for (int t = 0; t < TYPES.length; t++) {
+            int capacity = xs[t].length;
+            for (int i = 0; i < counts[t]; i++) {
+                int slot = (starts[t] + i) % capacity;
+                frame.addSprite(null, imagePaths[t], xs[t][slot], ys[t][slot]);
+            }
+        }
+    }
+
+    /**
+     * Removes every effect, for the start of a new game.
+     */
+    public void clear() {
+        for (int t = 0; t < TYPES.length; t++) {
+            starts[t] = 0;
+            counts[t] = 0;
+        }
+        liveCount = 0;
+    }
+
+    //getters
+    /**
+     * Gets the number of effects on screen.
+     *
+     * @return The number of live effects
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the number of effects of a type on screen.
+     *
+     * @param type The type of effect
+     * @return The number of live effects of the type
+     */
+    public int getLiveCount(EffectType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Gets the x-coordinate of a live effect, counting from the oldest effect of its type.
+     *
+     * @param type The type of effect
+     * @param index The index of the effect, less than the live count of the type
+     * @return The x-coordinate of the effect
+     */
+    public double getX(EffectType type, int index) {
+        int t = type.ordinal();
+        return xs[t][(starts[t] + index) % xs[t].length];
+    }
+
+    /**
+     * Gets the y-coordinate of a live effect, counting from the oldest effect of its type.
+     *
+     * @param type The type of effect
+     * @param index The index of the effect, less than the live count of the type
+     * @return The y-coordinate of the effect
+     */
+    public double getY(EffectType type, int index) {
+        int t = type.ordinal();
+        return ys[t][(starts[t] + index) % ys[t].length];
+    }
+
+    /**
+     * Gets the number of effects emitted, including those coalesced, evicting or dropped.
+     *
+     * @return The number of effects emitted
+     */
+    public long getEmittedCount() {
+        return emittedCount;
+    }
+
+    /**
+     * Gets the number of emitted effects merged into a nearby live effect.
+     *
+     * @return The number of coalesced effects
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Gets the number of live effects overwritten to make room for newer ones.
+     *
+     * @return The number of evicted effects
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Gets the number of emitted effects not shown because the budget was used up by other types.
+     *
+     * @return The number of dropped effects
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+}
@@ -1,4 +1,3 @@
-import bagel.*;
 import bagel.util.Point;
 
 /**
@@ -7,28 +6,52 @@ import bagel.util.Point;
 public class Passenger extends MovableEntity implements Damageable, Collidable {
     private static final double PRIORITY_TEXT_OFFSET_X = 30;
     private static final double EARNINGS_TEXT_OFFSET_X = 100;
+    private static final String PRIORITY_FORMAT = "%.0f";
+    private static final String EARNINGS_FORMAT = "%.1f";
     private static final int COLLISION_TIMEOUT = 200;
     private static final double STARTING_HEALTH = 100.0;
     private static final int SEPARATION_FRAMES = 10;
 
+    /**
+     * The stages of a passenger's trip, derived from the picked up, dropped off, walking and
+     * following driver flags.
+     */
+    public enum State { WAITING, WALKING_TO_TAXI, RIDING, WALKING_TO_FLAG, FOLLOWING_DRIVER, DELIVERED }
+
     private int priority;
     private final double endX;
     private final double yDistance;
-    private final Font font;
+    private final String fontPath;
+    private final int fontSize;
     private final double ratePerY;
     private final double[] priorityRates;
     private final int damage;
     private boolean isPickedUp;
     private boolean isDroppedOff;
     private boolean isWalking;
-    private Point targetPosition;
+    private boolean hasTarget;
+    private double targetX;
+    private double targetY;
     private boolean priorityIncreased;
     private boolean hasUmbrella;
     private double health;
-    private int collisionTimeout;
+    private final TimerWheel timers;
+    private int collisionTimer;
+    private final Runnable collisionTimeoutEnded;
     private int separationFramesLeft;
-    private Point separationDirection;
+    private double separationDx;
+    private double separationDy;
     private boolean isFollowingDriver;
+    private boolean hasRidden;
+    private State state;
+    private final TripEndFlag tripEndFlag;
+
+    //links within the partition of the passenger's current state, maintained by PassengerPartitions
+    PassengerPartitions partitions;
+    Passenger previousInState;
+    Passenger nextInState;
+    //the HUD totals told about health changes, maintained by HudAggregates
+    HudAggregates aggregates;
 
     /**
      * Constructs a new Passenger with specified attributes.
@@ -49,16 +72,20 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
      * @param speedX The horizontal walking speed of the passenger
      * @param speedY The vertical walking speed of the passenger
      * @param hasUmbrella Whether the passenger has an umbrella
+     * @param tripEndFlag The flag marking where the passenger's trip ends
+     * @param timers The wheel the passenger's collision timeouts are scheduled on
      */
     public Passenger(double x, double y, int priority, double endX, double yDistance, String imagePath,
                      String fontPath, int fontSize, double radius, double ratePerY,
                      double priorityRate1, double priorityRate2, double priorityRate3,
-                     double speedX, double speedY, boolean hasUmbrella) {
+                     double speedX, double speedY, boolean hasUmbrella, TripEndFlag tripEndFlag,
+                     TimerWheel timers) {
         super(x, y, imagePath, radius, speedX, speedY);
         this.priority = priority;
         this.endX = endX;
         this.yDistance = yDistance;
-        this.font = new Font(fontPath, fontSize);
+        this.fontPath = fontPath;
+        this.fontSize = fontSize;
         this.ratePerY = ratePerY;
         this.priorityRates = new double[]{priorityRate1, priorityRate2, priorityRate3};
         this.isPickedUp = false;
@@ -68,74 +95,105 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
         this.hasUmbrella = hasUmbrella;
         this.health = STARTING_HEALTH;
         this.damage = 0;
+        this.state = State.WAITING;
+        this.tripEndFlag = tripEndFlag;
+        this.timers = timers;
+        this.collisionTimer = TimerWheel.NONE;
+        this.collisionTimeoutEnded = () -> collisionTimer = TimerWheel.NONE;
+    }
+
+    /*
+    method to derive the passenger's state from its flags, moving it to the matching partition when it changes
+     */
+    private void updateState() {
+        State newState;
+        if (isDroppedOff) {
+            newState = State.DELIVERED;
+        } else if (isPickedUp) {
+            newState = State.RIDING;
+        } else if (isFollowingDriver) {
+            newState = State.FOLLOWING_DRIVER;
+        } else if (isWalking) {
+            newState = hasRidden ? State.WALKING_TO_FLAG : State.WALKING_TO_TAXI;
+        } else {
+            newState = State.WAITING;
+        }
+
+        if (newState != state) {
+            State previous = state;
+            state = newState;
+            if (partitions != null) {
+                partitions.move(this, previous);
+            }
+        }
     }
 
     /**
-     * Moves the passenger towards a target position.
-     *
-     * @param target The target position to move towards
+     * Moves the passenger a step towards its target position.
      */
-    public void moveTowards(Point target) {
-        if (isWalking && targetPosition != null) {
-            double dx = targetPosition.x - position.x;
-            double dy = targetPosition.y - position.y;
+    public void moveTowards() {
+        if (isWalking && hasTarget) {
+            double dx = targetX - x;
+            double dy = targetY - y;
 
             if (Math.abs(dx) < 1 && Math.abs(dy) < 1) {
-                position = targetPosition;
-                isWalking = false;
+                x = targetX;
+                y = targetY;
+                setWalking(false);
             } else {
                 double moveX = Math.signum(dx) * Math.min(Math.abs(dx), 1);
                 double moveY = Math.signum(dy) * Math.min(Math.abs(dy), 1);
-                position = new Point(position.x + moveX, position.y + moveY);
+                x += moveX;
+                y += moveY;
             }
         }
     }
 
     /**
-     * Moves the passenger vertically based on game world scrolling.
+     * Keeps the passenger on screen while the camera scrolls if they are riding in the taxi,
+     * following the driver or have been dropped off; waiting passengers stay on the road.
+     * A walk target is a place on the screen, so it always follows the camera.
      *
-     * @param moveDown true if the game world is scrolling down, false otherwise
+     * @param distance The distance the camera scrolled this frame
      */
     @Override
-    public void moveVertically(boolean moveDown) {
-        if (!isPickedUp && moveDown) {
-            position = new Point(position.x, position.y + SCROLL_SPEED);
+    public void followCamera(double distance) {
+        if (isPickedUp || isFollowingDriver || isDroppedOff) {
+            super.followCamera(distance);
         }
+        targetY -= distance;
     }
 
     /**
-     * Updates the passenger's state, including collision effects.
+     * Updates the passenger's state, stepping apart from what last hit them.
+     * Collision timeouts end through the timer wheel.
      */
     @Override
     public void update() {
-        if (collisionTimeout > 0) {
-            collisionTimeout--;
-
-            if (separationFramesLeft > 0) {
-                position = new Point(
-                        position.x + separationDirection.x,
-                        position.y + separationDirection.y
-                );
-                separationFramesLeft--;
-            }
+        if (separationFramesLeft > 0) {
+            x += separationDx;
+            y += separationDy;
+            separationFramesLeft--;
         }
     }
 
     /**
-     * Draws the passenger and their information on the game screen.
+     * Draws the passenger into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void draw() {
+    public void draw(FrameSnapshot frame) {
         if (!isDroppedOff() && !isPickedUp) {
-            image.draw(position.x, position.y);
+            frame.addSprite(this, imagePath, x, y);
             if (!isPickedUp() && !isFollowingDriver()) {
-                font.drawString(String.valueOf(priority), position.x - PRIORITY_TEXT_OFFSET_X, position.y);
-                font.drawString(String.format("%.1f", calculateExpectedEarnings()),
-                        position.x - EARNINGS_TEXT_OFFSET_X, position.y);
+                frame.addLabel(fontPath, fontSize, PRIORITY_FORMAT, priority, -PRIORITY_TEXT_OFFSET_X);
+                frame.addLabel(fontPath, fontSize, EARNINGS_FORMAT, calculateExpectedEarnings(),
+                        -EARNINGS_TEXT_OFFSET_X);
             }
         }
         if (isFollowingDriver()) {
-            image.draw(position.x, position.y);
+            frame.addSprite(this, imagePath, x, y);
         }
     }
 
@@ -166,31 +224,40 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
     @Override
     public void takeDamage(double amount) {
         health -= amount;
+        if (aggregates != null) {
+            aggregates.onHealthChanged(this);
+        }
         if (health <= 0) {
             //handle passenger death, or in checkEndGame in shadowTaxi
         }
     }
 
     /**
-     * Handles collision with another game entity.
+     * Gets the collision type of the passenger.
      *
-     * @param other The other entity involved in the collision
+     * @return The collision type
      */
     @Override
-    public void handleCollision(GameEntity other) {
-        if (collisionTimeout > 0) return;
-
-        if (other instanceof Car || other instanceof EnemyCar || other instanceof Fireball) {
-            takeDamage(((Damageable) other).getDamage());
-            collisionTimeout = COLLISION_TIMEOUT;
-            separationFramesLeft = SEPARATION_FRAMES;
-
-            //determine separation direction
-            separationDirection = new Point(
-                    position.x < other.getPosition().x ? -2 : 2,
-                    position.y < other.getPosition().y ? -2 : 2
-            );
-        }
+    public CollisionType getCollisionType() {
+        return CollisionType.PASSENGER;
+    }
+
+    /**
+     * Handles being hit by a car or fireball, taking its damage and moving apart from it.
+     *
+     * @param other The entity that hit the passenger
+     * @param damage The damage the entity inflicts
+     */
+    public void handleHit(GameEntity other, double damage) {
+        if (collisionTimer != TimerWheel.NONE) return;
+
+        takeDamage(damage);
+        collisionTimer = timers.schedule(COLLISION_TIMEOUT, collisionTimeoutEnded);
+        separationFramesLeft = SEPARATION_FRAMES;
+
+        //determine separation direction
+        separationDx = x < other.getX() ? -2 : 2;
+        separationDy = y < other.getY() ? -2 : 2;
     }
 
     /**
@@ -207,11 +274,13 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
     /**
      * Makes the passenger follow the driver's position.
      *
-     * @param driverPosition The current position of the driver
+     * @param driverX The current x-coordinate of the driver
+     * @param driverY The current y-coordinate of the driver
      */
-    public void followDriver(Point driverPosition) {
+    public void followDriver(double driverX, double driverY) {
         if (isFollowingDriver) {
-            moveTowards(driverPosition);
+            setTargetPosition(driverX, driverY);
+            moveTowards();
         }
     }
 
@@ -226,24 +295,6 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
         return health;
     }
 
-    /**
-     * Gets the current position of the passenger.
-     *
-     * @return The Point representing the passenger's position
-     */
-    public Point getPosition() {
-        return position;
-    }
-
-    /**
-     * Sets the position of the passenger.
-     *
-     * @param newPosition The new position for the passenger
-     */
-    public void setPosition(Point newPosition) {
-        super.setPosition(newPosition);
-    }
-
     /**
      * Gets the priority of the passenger.
      *
@@ -271,7 +322,9 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
         this.isPickedUp = pickedUp;
         if (pickedUp) {
             this.isWalking = false;
+            this.hasRidden = true;
         }
+        updateState();
     }
 
     /**
@@ -290,24 +343,28 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
      */
     public void setDroppedOff(boolean droppedOff) {
         isDroppedOff = droppedOff;
+        updateState();
     }
 
     /**
      * Sets the target position for the passenger to move towards.
      *
-     * @param target The target position
+     * @param targetX The x-coordinate of the target position
+     * @param targetY The y-coordinate of the target position
      */
-    public void setTargetPosition(Point target) {
-        this.targetPosition = target;
+    public void setTargetPosition(double targetX, double targetY) {
+        this.hasTarget = true;
+        this.targetX = targetX;
+        this.targetY = targetY;
     }
 
     /**
-     * Gets the current target position of the passenger.
+     * Gets a snapshot of the current target position of the passenger.
      *
-     * @return The Point representing the target position
+     * @return The Point representing the target position, or null if there is none
      */
     public Point getTargetPosition() {
-        return targetPosition;
+        return hasTarget ? new Point(targetX, targetY) : null;
     }
 
     /**
@@ -326,6 +383,7 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
      */
     public void setWalking(boolean walking) {
         this.isWalking = walking;
+        updateState();
     }
 
     /**
@@ -345,6 +403,7 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
      */
     public void setFollowingDriver(boolean followingDriver) {
         this.isFollowingDriver = followingDriver;
+        updateState();
     }
 
     /**
@@ -355,4 +414,31 @@ public class Passenger extends MovableEntity implements Damageable, Collidable {
     public boolean isFollowingDriver() {
         return isFollowingDriver;
     }
+
+    /**
+     * Gets the stage of the passenger's trip.
+     *
+     * @return The passenger's state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the flag marking where the passenger's trip ends.
+     *
+     * @return The trip end flag
+     */
+    public TripEndFlag getTripEndFlag() {
+        return tripEndFlag;
+    }
+
+    /**
+     * Gets the passenger that entered the same state after this one, for walking a partition.
+     *
+     * @return The next passenger in the state, or null if this is the last
+     */
+    public Passenger getNextInState() {
+        return nextInState;
+    }
 }
\ No newline at end of file
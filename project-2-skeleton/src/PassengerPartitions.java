@@ -0,0 +1,122 @@
+/**
+ * The active passengers, partitioned by the stage of their trip.
+ * Each state keeps its passengers in a doubly linked list threaded through the passengers
+ * themselves, in the order they entered the state. A passenger's setters move it between lists
+ * in constant time as its state changes, so each gameplay phase walks only the passengers in the
+ * states it acts on, and walking a list allocates nothing.
+ */
+public class PassengerPartitions {
+    private static final Passenger.State[] STATES = Passenger.State.values();
+
+    private final Passenger[] heads;
+    private final Passenger[] tails;
+    private final int[] sizes;
+
+    /**
+     * Constructs a new, empty PassengerPartitions.
+     */
+    public PassengerPartitions() {
+        heads = new Passenger[STATES.length];
+        tails = new Passenger[STATES.length];
+        sizes = new int[STATES.length];
+    }
+
+    /**
+     * Adds a passenger to the partition of its current state, and keeps it there as its state changes.
+     *
+     * @param passenger The passenger to add
+     */
+    public void add(Passenger passenger) {
+        passenger.partitions = this;
+        link(passenger, passenger.getState());
+    }
+
+    /**
+     * Removes a passenger, which stops being tracked.
+     *
+     * @param passenger The passenger to remove
+     */
+    public void remove(Passenger passenger) {
+        unlink(passenger, passenger.getState());
+        passenger.partitions = null;
+    }
+
+    /**
+     * Removes every passenger, for the start of a new game.
+     */
+    public void clear() {
+        for (int s = 0; s < STATES.length; s++) {
+            Passenger next;
+            for (Passenger passenger = heads[s]; passenger != null; passenger = next) {
+                next = passenger.nextInState;
+                passenger.partitions = null;
+                passenger.previousInState = null;
+                passenger.nextInState = null;
+            }
+            heads[s] = null;
+            tails[s] = null;
+            sizes[s] = 0;
+        }
+    }
+
+    /*
+    method to move a passenger whose state has just changed to the end of its new state's list
+     */
+    void move(Passenger passenger, Passenger.State previous) {
+        unlink(passenger, previous);
+        link(passenger, passenger.getState());
+    }
+
+    private void link(Passenger passenger, Passenger.State state) {
+        int s = state.ordinal();
+        passenger.previousInState = tails[s];
+        passenger.nextInState = null;
+        if (tails[s] == null) {
+            heads[s] = passenger;
+        } else {
+            tails[s].nextInState = passenger;
+        }
+        tails[s] = passenger;
+        sizes[s]++;
+    }
+
+    private void unlink(Passenger passenger, Passenger.State state) {
+        int s = state.ordinal();
+        if (passenger.previousInState == null) {
+            heads[s] = passenger.nextInState;
+        } else {
+            passenger.previousInState.nextInState = passenger.nextInState;
+        }
+        if (passenger.nextInState == null) {
+            tails[s] = passenger.previousInState;
+        } else {
+            passenger.nextInState.previousInState = passenger.previousInState;
+        }
+        passenger.previousInState = null;
+        passenger.nextInState = null;
+        sizes[s]--;
+    }
+
+    //getters
+    /**
+     * Gets the passenger that has been in a state the longest. Walk the rest of the state with
+     * Passenger.getNextInState(), reading the next passenger before acting on the current one,
+     * since acting on it may move it to another state.
+     *
+     * @param state The state
+     * @return The first passenger in the state, or null if there is none
+     */
+    public Passenger first(Passenger.State state) {
+        return heads[state.ordinal()];
+    }
+
+    /**
+     * Gets the number of passengers in a state.
+     *
+     * @param state The state
+     * @return The number of passengers
+     */
+    public int size(Passenger.State state) {
+        return sizes[state.ordinal()];
+    }
+}
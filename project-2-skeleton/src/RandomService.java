@@ -0,0 +1,72 @@
+import java.util.SplittableRandom;
+
+/**
+ * The random numbers of a single game world, split into named streams from one seed.
+ * A world seeded with the same value makes the same decisions, and worlds simulated side by side
+ * never share generator state.
+ */
+public class RandomService {
+    private final long seed;
+    private final RandomStream spawning;
+    private final RandomStream carSpeed;
+    private final RandomStream fireballs;
+
+    /**
+     * Constructs a new RandomService and splits its streams from a seed.
+     *
+     * @param seed The seed for every stream of this world
+     */
+    public RandomService(long seed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        this.spawning = new RandomStream(root.split());
+        this.carSpeed = new RandomStream(root.split());
+        this.fireballs = new RandomStream(root.split());
+    }
+
+    /**
+     * Picks a seed for a world that was not given one, so that unseeded games still differ.
+     *
+     * @return A new seed
+     */
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    //getters
+    /**
+     * Gets the seed every stream of this world was split from, so the game can be replayed.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the stream deciding when and where cars, enemy cars and replacement taxis appear.
+     *
+     * @return The spawning stream
+     */
+    public RandomStream getSpawning() {
+        return spawning;
+    }
+
+    /**
+     * Gets the stream choosing the speeds of cars and enemy cars.
+     *
+     * @return The car speed stream
+     */
+    public RandomStream getCarSpeed() {
+        return carSpeed;
+    }
+
+    /**
+     * Gets the stream deciding when enemy cars shoot fireballs.
+     *
+     * @return The fireball stream
+     */
+    public RandomStream getFireballs() {
+        return fireballs;
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.SplittableRandom;
+
+/**
+ * A single, independent stream of random numbers used for one kind of gameplay decision.
+ * Each stream owns its generator, so draws from one stream never shift the values of another.
+ */
+public class RandomStream {
+    private final SplittableRandom random;
+
+    /**
+     * Constructs a new RandomStream from its own generator.
+     *
+     * @param random The generator this stream draws from
+     */
+    public RandomStream(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Draws the number of frames until an event that happens on average once every meanInterval frames.
+     * This is the geometric distribution of rolling for the event once per frame, drawn in one step.
+     *
+     * @param meanInterval The mean number of frames between events, at least 1
+     * @return The number of frames until the event, at least 1
+     */
+    public int nextGap(double meanInterval) {
+        if (meanInterval <= 1) {
+            return 1;
+        }
+        double u = 1.0 - random.nextDouble();
+        double gap = Math.floor(Math.log(u) / Math.log1p(-1.0 / meanInterval));
+        return gap >= Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE : (int) gap + 1;
+    }
+
+    /**
+     * Gets a random integer between min (inclusive) and max (exclusive).
+     *
+     * @param min The minimum value
+     * @param max The maximum value, exclusive
+     * @return A random integer between min and max
+     */
+    public int getRandomInt(int min, int max) {
+        return random.nextInt(min, max);
+    }
+
+    /**
+     * Selects one of two values at random.
+     *
+     * @param val1 The first value
+     * @param val2 The second value
+     * @return Either val1 or val2, with equal probability
+     */
+    public int selectAValue(int val1, int val2) {
+        return random.nextBoolean() ? val1 : val2;
+    }
+
+    /**
+     * Gets a random double between min (inclusive) and max (exclusive).
+     *
+     * @param min The minimum value
+     * @param max The maximum value, exclusive
+     * @return A random double between min and max
+     */
+    public double nextDouble(double min, double max) {
+        return min + random.nextDouble() * (max - min);
+    }
+}
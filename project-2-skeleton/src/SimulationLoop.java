@@ -0,0 +1,145 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the gameplay simulation on its own thread at a fixed rate, apart from bagel's render loop.
+ * The render thread hands over the keys held as the latest InputFrame, and each simulated frame is
+ * published back as a FrameSnapshot through a TripleBuffer, so neither thread ever waits for the
+ * other. A slow draw therefore no longer slows the game down, and a fast monitor no longer speeds
+ * it up. The world belongs to the simulation thread from start() until stop() returns.
+ */
+public class SimulationLoop implements Runnable {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final GameWorld world;
+    private final long tickNanos;
+    private final int maxCatchUpTicks;
+    private final TripleBuffer<FrameSnapshot> frames;
+    private volatile InputFrame input;
+    private volatile boolean running;
+    private Thread thread;
+
+    //simulation thread only
+    private FrameSnapshot lastPublished;
+    private long nextTickNanos;
+
+    /**
+     * Constructs a new SimulationLoop for a world. Nothing is simulated until it is started.
+     *
+     * @param world The world to simulate
+     * @param ticksPerSecond The number of frames simulated per second
+     * @param maxCatchUpTicks The number of frames the simulation may fall behind before the lost time is dropped
+     */
+    public SimulationLoop(GameWorld world, int ticksPerSecond, int maxCatchUpTicks) {
+        this.world = world;
+        this.tickNanos = NANOS_PER_SECOND / ticksPerSecond;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.frames = new TripleBuffer<>(FrameSnapshot::new);
+        this.input = InputFrame.NONE;
+    }
+
+    /**
+     * Publishes the world's current frame and starts simulating from it on a new thread.
+     * Called from the render thread, which must leave the world alone until stop() returns.
+     */
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+        input = InputFrame.NONE;
+        long now = System.nanoTime();
+        lastPublished = null;
+        publish(now);
+        nextTickNanos = now + tickNanos;
+
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops simulating and waits for the simulation thread to finish its frame, after which the
+     * world may be used from the calling thread again.
+     */
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Simulates a frame each time one is due, until stopped or the game is over.
+     * The snapshot of the last frame is published before the thread ends.
+     */
+    @Override
+    public void run() {
+        while (running && !world.isGameOver()) {
+            long now = System.nanoTime();
+            if (now < nextTickNanos) {
+                LockSupport.parkNanos(nextTickNanos - now);
+                continue;
+            }
+            //after a long stall, catch up a few frames at most rather than replaying every frame missed
+            if (now - nextTickNanos > maxCatchUpTicks * tickNanos) {
+                nextTickNanos = now;
+            }
+            world.step(input);
+            publish(nextTickNanos);
+            nextTickNanos += tickNanos;
+        }
+    }
+
+    /*
+    method to record the world's current frame into the back buffer and hand it to the renderer
+     */
+    private void publish(long frameNanos) {
+        FrameSnapshot frame = frames.getBack();
+        frame.record(world, frameNanos, lastPublished);
+        frames.publish();
+        lastPublished = frame;
+    }
+
+    /**
+     * Sets the keys held, to be used from the next simulated frame. Called from the render thread.
+     *
+     * @param input The directional keys held
+     */
+    public void setInput(InputFrame input) {
+        this.input = input;
+    }
+
+    /**
+     * Takes the latest published frame. Called from the render thread.
+     *
+     * @return The snapshot of the latest simulated frame
+     */
+    public FrameSnapshot acquireFrame() {
+        return frames.acquire();
+    }
+
+    /**
+     * Gets how far the render clock has moved on from a frame towards the next one, for drawing
+     * between the frame before a snapshot and the snapshot itself.
+     *
+     * @param frame The snapshot being drawn
+     * @return The fraction of a frame since the snapshot was due, between 0 and 1
+     */
+    public double getAlpha(FrameSnapshot frame) {
+        double alpha = (double) (System.nanoTime() - frame.getTickNanos()) / tickNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+}
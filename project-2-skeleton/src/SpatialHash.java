@@ -0,0 +1,341 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform-grid spatial hash used as a collision broadphase.
+ * Entities are bucketed once per frame by the cell containing their centre, and queries
+ * return only the entities whose bounding boxes overlap within the sum of both radii.
+ * Slots are numbered in the order entities were bucketed, so query results can be
+ * processed in the same order as the source list.
+ *
+ * @param <T> The type of entity stored in the grid
+ */
+public class SpatialHash<T extends GameEntity> {
+    private static final int MIN_TABLE_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    //slack so that rounding in GameEntity.collidesWith can never reject a pair the broadphase missed
+    private static final double EPSILON = 1e-6;
+
+    private final double cellWidth;
+    private final double cellHeight;
+    private final List<T> entities;
+
+    private int[] heads;
+    private int mask;
+    private int[] next;
+    private int[] cellXs;
+    private int[] cellYs;
+    private double[] xs;
+    private double[] ys;
+    private double[] radii;
+    private boolean[] removed;
+    private double maxRadius;
+
+    private final Results results;
+
+    /**
+     * Constructs a new SpatialHash with the given cell dimensions.
+     *
+     * @param cellWidth The width of a grid cell
+     * @param cellHeight The height of a grid cell
+     */
+    public SpatialHash(double cellWidth, double cellHeight) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.entities = new ArrayList<>();
+        this.heads = new int[MIN_TABLE_SIZE];
+        this.mask = MIN_TABLE_SIZE - 1;
+        this.next = new int[INITIAL_CAPACITY];
+        this.cellXs = new int[INITIAL_CAPACITY];
+        this.cellYs = new int[INITIAL_CAPACITY];
+        this.xs = new double[INITIAL_CAPACITY];
+        this.ys = new double[INITIAL_CAPACITY];
+        this.radii = new double[INITIAL_CAPACITY];
+        this.removed = new boolean[INITIAL_CAPACITY];
+        this.results = new Results();
+    }
+
+    /**
+     * Rebuckets every entity of the source list, replacing the previous contents.
+     * Slot i refers to the entity at index i of the list at the time of the call.
+     * An EntityStore's positions and radii are copied straight from its columns.
+     *
+     * @param source The entities to bucket
+     */
+    public void rebuild(List<? extends T> source) {
+        int count = source.size();
+        ensureCapacity(count);
+        entities.clear();
+        Arrays.fill(heads, -1);
+        maxRadius = 0;
+
+        if (source instanceof EntityStore) {
+            EntityStore<?> store = (EntityStore<?>) source;
+            System.arraycopy(store.getXs(), 0, xs, 0, count);
+            System.arraycopy(store.getYs(), 0, ys, 0, count);
+            System.arraycopy(store.getRadii(), 0, radii, 0, count);
+        } else {
+            for (int slot = 0; slot < count; slot++) {
+                T entity = source.get(slot);
+                xs[slot] = entity.getX();
+                ys[slot] = entity.getY();
+                radii[slot] = entity.getRadius();
+            }
+        }
+
+        for (int slot = 0; slot < count; slot++) {
+            entities.add(source.get(slot));
+            cellXs[slot] = (int) Math.floor(xs[slot] / cellWidth);
+            cellYs[slot] = (int) Math.floor(ys[slot] / cellHeight);
+            removed[slot] = false;
+            maxRadius = Math.max(maxRadius, radii[slot]);
+        }
+        //linking from the last slot down leaves every bucket's chain in ascending slot order
+        for (int slot = count - 1; slot >= 0; slot--) {
+            int bucket = hash(cellXs[slot], cellYs[slot]);
+            next[slot] = heads[bucket];
+            heads[bucket] = slot;
+        }
+    }
+
+    /**
+     * Finds the entities that may collide with a circle, in ascending slot order. Each cell's chain is
+     * already in slot order, so the sorted runs of the few cells covered are merged rather than sorted.
+     * The results are read with getResultCount() and getResult(int), and remain valid until
+     * the next query on this grid.
+     *
+     * @param x The x-coordinate of the circle's centre
+     * @param y The y-coordinate of the circle's centre
+     * @param radius The radius of the circle
+     * @return The number of candidate slots found
+     */
+    public int query(double x, double y, double radius) {
+        return query(x, y, radius, results);
+    }
+
+    /**
+     * Finds the entities that may collide with a circle, in ascending slot order, into a buffer of
+     * the caller's. Queries into different buffers may run at the same time, as long as the grid is
+     * neither rebuilt nor has slots removed meanwhile.
+     *
+     * @param x The x-coordinate of the circle's centre
+     * @param y The y-coordinate of the circle's centre
+     * @param radius The radius of the circle
+     * @param results The buffer to fill, replacing its contents
+     * @return The number of candidate slots found
+     */
+    public int query(double x, double y, double radius, Results results) {
+        results.count = 0;
+        results.runCount = 0;
+        if (entities.isEmpty()) {
+            return 0;
+        }
+
+        double reach = radius + maxRadius + EPSILON;
+        int minCellX = (int) Math.floor((x - reach) / cellWidth);
+        int maxCellX = (int) Math.floor((x + reach) / cellWidth);
+        int minCellY = (int) Math.floor((y - reach) / cellHeight);
+        int maxCellY = (int) Math.floor((y + reach) / cellHeight);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                results.startRun();
+                for (int slot = heads[hash(cellX, cellY)]; slot != -1; slot = next[slot]) {
+                    if (removed[slot] || cellXs[slot] != cellX || cellYs[slot] != cellY) {
+                        continue;
+                    }
+                    double pairReach = radius + radii[slot] + EPSILON;
+                    if (Math.abs(xs[slot] - x) < pairReach && Math.abs(ys[slot] - y) < pairReach) {
+                        results.add(slot);
+                    }
+                }
+            }
+        }
+
+        results.merge();
+        return results.count;
+    }
+
+    /**
+     * Marks a slot as removed so that later queries in this frame skip it.
+     *
+     * @param slot The slot to remove
+     */
+    public void remove(int slot) {
+        removed[slot] = true;
+    }
+
+    //getters
+    /**
+     * Gets the number of slots bucketed by the last rebuild.
+     *
+     * @return The number of slots
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * Gets the entity stored in a slot.
+     *
+     * @param slot The slot
+     * @return The entity in the slot
+     */
+    public T get(int slot) {
+        return entities.get(slot);
+    }
+
+    /**
+     * Checks if a slot has been removed since the last rebuild.
+     *
+     * @param slot The slot
+     * @return true if the slot was removed, false otherwise
+     */
+    public boolean isRemoved(int slot) {
+        return removed[slot];
+    }
+
+    /**
+     * Gets the number of candidates found by the last query.
+     *
+     * @return The number of candidates
+     */
+    public int getResultCount() {
+        return results.count;
+    }
+
+    /**
+     * Gets a candidate slot found by the last query.
+     *
+     * @param index The index of the candidate, between 0 and getResultCount() - 1
+     * @return The candidate slot
+     */
+    public int getResult(int index) {
+        return results.get(index);
+    }
+
+    private int hash(int cellX, int cellY) {
+        return (cellX * 73856093 ^ cellY * 19349663) & mask;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > next.length) {
+            int capacity = Math.max(count, next.length * 2);
+            next = new int[capacity];
+            cellXs = new int[capacity];
+            cellYs = new int[capacity];
+            xs = new double[capacity];
+            ys = new double[capacity];
+            radii = new double[capacity];
+            removed = new boolean[capacity];
+        }
+        int tableSize = MIN_TABLE_SIZE;
+        while (tableSize < count * 2) {
+            tableSize <<= 1;
+        }
+        if (tableSize > heads.length) {
+            heads = new int[tableSize];
+            mask = tableSize - 1;
+        }
+    }
+
+    /**
+     * The candidate slots found by a query, in ascending order.
+     */
+    public static class Results {
+        private int[] slots;
+        private int count;
+        //where each cell's run of ascending slots starts, and a buffer to merge runs into
+        private int[] runStarts;
+        private int runCount;
+        private int[] merged;
+
+        /**
+         * Constructs a new, empty Results buffer.
+         */
+        public Results() {
+            slots = new int[INITIAL_CAPACITY];
+            runStarts = new int[INITIAL_CAPACITY];
+            merged = new int[INITIAL_CAPACITY];
+        }
+
+        private void add(int slot) {
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, count * 2);
+            }
+            slots[count++] = slot;
+        }
+
+        /*
+        method to start the run of a new cell, dropping the previous run if it found nothing
+         */
+        private void startRun() {
+            if (runCount > 0 && runStarts[runCount - 1] == count) {
+                return;
+            }
+            if (runCount == runStarts.length) {
+                runStarts = Arrays.copyOf(runStarts, runCount * 2);
+            }
+            runStarts[runCount++] = count;
+        }
+
+        /*
+        method to merge the runs into ascending order, adjacent pairs at a time
+         */
+        private void merge() {
+            if (runCount > 0 && runStarts[runCount - 1] == count) {
+                runCount--;
+            }
+            if (merged.length < slots.length) {
+                merged = new int[slots.length];
+            }
+            while (runCount > 1) {
+                int runs = 0;
+                for (int run = 0; run < runCount; run += 2) {
+                    int from = runStarts[run];
+                    int middle = run + 1 < runCount ? runStarts[run + 1] : count;
+                    int to = run + 2 < runCount ? runStarts[run + 2] : count;
+                    int i = from;
+                    int j = middle;
+                    int k = from;
+                    while (i < middle && j < to) {
+                        merged[k++] = slots[i] <= slots[j] ? slots[i++] : slots[j++];
+                    }
+                    while (i < middle) {
+                        merged[k++] = slots[i++];
+                    }
+                    while (j < to) {
+                        merged[k++] = slots[j++];
+                    }
+                    runStarts[runs++] = from;
+                }
+                int[] swap = slots;
+                slots = merged;
+                merged = swap;
+                runCount = runs;
+            }
+            runCount = 0;
+        }
+
+        //getters
+        /**
+         * Gets the number of candidates found.
+         *
+         * @return The number of candidates
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Gets a candidate slot.
+         *
+         * @param index The index of the candidate, between 0 and size() - 1
+         * @return The candidate slot
+         */
+        public int get(int index) {
+            return slots[index];
+        }
+    }
+}
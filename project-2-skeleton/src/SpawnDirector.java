@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Decides when traffic spawns and when enemy cars shoot.
+ * Rather than rolling for every kind of event on every frame, the director draws the frame of each
+ * next event from the matching geometric distribution and keeps the spawns in a priority queue by
+ * frame, so a frame without events costs a single comparison. The mean interval between events
+ * follows the configured curve for the frame and weather in force when the event is scheduled.
+ * Since the events are memoryless, pending spawns are simply redrawn when the weather changes.
+ * A spawn that finds no free slot is deferred and retried on the following frames, one at a time
+ * for each kind, and is rejected once its deferral runs out.
+ */
+public class SpawnDirector {
+    /**
+     * The kinds of spawn the director schedules, in the order they happen on a shared frame.
+     */
+    public enum Event { CAR, ENEMY_CAR }
+
+    private static final Event[] EVENTS = Event.values();
+    private static final int NOT_DEFERRED = -1;
+
+    private final GameConfig.SpawnConfig[] spawnConfigs;
+    private final GameConfig.SpawnConfig fireballConfig;
+    private final RandomStream spawning;
+    private final RandomStream fireballs;
+    private final ScheduledEvent[] scheduled;
+    private final PriorityQueue<ScheduledEvent> queue;
+    private final int deferFrames;
+    private final int[] deferredFrames;
+    private final int[] deferralsLeft;
+    private boolean polledDeferred;
+    private WeatherCondition.WeatherType weather;
+
+    private final long[] blockedSlots;
+    private final long[] deferrals;
+    private final long[] rejections;
+
+    /**
+     * Constructs a new SpawnDirector. No events are scheduled until it is started.
+     *
+     * @param config The compiled game settings holding the spawn curves
+     * @param random The random streams of the world
+     */
+    public SpawnDirector(GameConfig config, RandomService random) {
+        this.spawnConfigs = new GameConfig.SpawnConfig[]{config.otherCarSpawn, config.enemyCarSpawn};
+        this.fireballConfig = config.fireballSpawn;
+        this.spawning = random.getSpawning();
+        this.fireballs = random.getFireballs();
+        this.scheduled = new ScheduledEvent[EVENTS.length];
+        for (int i = 0; i < EVENTS.length; i++) {
+            scheduled[i] = new ScheduledEvent(EVENTS[i]);
+        }
+        this.queue = new PriorityQueue<>(EVENTS.length,
+                Comparator.comparingInt((ScheduledEvent event) -> event.frame)
+                        .thenComparingInt(event -> event.event.ordinal()));
+        this.deferFrames = config.spawnDeferFrames;
+        this.deferredFrames = new int[EVENTS.length];
+        this.deferralsLeft = new int[EVENTS.length];
+        this.weather = WeatherCondition.WeatherType.SUNNY;
+        this.blockedSlots = new long[EVENTS.length];
+        this.deferrals = new long[EVENTS.length];
+        this.rejections = new long[EVENTS.length];
+    }
+
+    /**
+     * Schedules the first of every kind of spawn, for the start of a new game.
+     *
+     * @param frame The current frame
+     * @param weather The current weather
+     */
+    public void start(int frame, WeatherCondition.WeatherType weather) {
+        this.weather = weather;
+        Arrays.fill(deferredFrames, NOT_DEFERRED);
+        rescheduleAll(frame);
+    }
+
+    /**
+     * Redraws every pending spawn at the rates of a new weather.
+     *
+     * @param frame The current frame
+     * @param weather The new weather
+     */
+    public void setWeather(int frame, WeatherCondition.WeatherType weather) {
+        if (weather != this.weather) {
+            this.weather = weather;
+            rescheduleAll(frame);
+        }
+    }
+
+    /**
+     * Takes the next spawn due on or before a frame, and schedules the one after it.
+     * Deferred spawns due again are taken after the scheduled ones.
+     * Call repeatedly until it returns null to take every spawn due on the frame.
+     *
+     * @param frame The current frame
+     * @return The spawn to carry out, or null if none is due
+     */
+    public Event poll(int frame) {
+        ScheduledEvent next = queue.peek();
+        if (next != null && next.frame <= frame) {
+            queue.poll();
+            schedule(next, frame);
+            polledDeferred = false;
+            return next.event;
+        }
+        for (int i = 0; i < EVENTS.length; i++) {
+            if (deferredFrames[i] != NOT_DEFERRED && deferredFrames[i] <= frame) {
+                deferredFrames[i] = NOT_DEFERRED;
+                polledDeferred = true;
+                return EVENTS[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts a spawn slot that was found taken, before another slot is drawn.
+     *
+     * @param event The kind of spawn
+     */
+    public void onSlotBlocked(Event event) {
+        blockedSlots[event.ordinal()]++;
+    }
+
+    /**
+     * Defers the spawn just taken, which found no free slot, to the next frame.
+     * A spawn whose deferral has run out, or that arrives while another of its kind is already
+     * deferred, is rejected instead.
+     *
+     * @param event The kind of spawn, as last returned by poll
+     * @param frame The current frame
+     */
+    public void defer(Event event, int frame) {
+        int i = event.ordinal();
+        if (polledDeferred) {
+            deferralsLeft[i]--;
+        } else if (deferredFrames[i] == NOT_DEFERRED && deferFrames > 0) {
+            deferralsLeft[i] = deferFrames;
+            deferrals[i]++;
+        } else {
+            rejections[i]++;
+            return;
+        }
+        if (deferralsLeft[i] > 0) {
+            deferredFrames[i] = frame + 1;
+        } else {
+            rejections[i]++;
+        }
+    }
+
+    /**
+     * Draws the frame on which an enemy car next shoots, counting from a frame.
+     *
+     * @param frame The current frame
+     * @return The frame of the next shot
+     */
+    public int nextFireFrame(int frame) {
+        return addGap(frame, fireballs.nextGap(fireballConfig.getInterval(frame, weather)));
+    }
+
+    /*
+    method to redraw every kind of spawn from a frame
+     */
+    private void rescheduleAll(int frame) {
+        queue.clear();
+        for (ScheduledEvent event : scheduled) {
+            schedule(event, frame);
+        }
+    }
+
+    private void schedule(ScheduledEvent event, int frame) {
+        double interval = spawnConfigs[event.event.ordinal()].getInterval(frame, weather);
+        event.frame = addGap(frame, spawning.nextGap(interval));
+        queue.add(event);
+    }
+
+    private static int addGap(int frame, int gap) {
+        return gap > Integer.MAX_VALUE - frame ? Integer.MAX_VALUE : frame + gap;
+    }
+
+    //getters
+    /**
+     * Gets the frame of the next scheduled spawn of a kind.
+     *
+     * @param event The kind of spawn
+     * @return The frame of its next spawn
+     */
+    public int getNextFrame(Event event) {
+        return scheduled[event.ordinal()].frame;
+    }
+
+    /**
+     * Gets the number of spawn slots of a kind found taken, over every game.
+     *
+     * @param event The kind of spawn
+     * @return The number of blocked slots
+     */
+    public long getBlockedSlotCount(Event event) {
+        return blockedSlots[event.ordinal()];
+    }
+
+    /**
+     * Gets the number of spawns of a kind deferred because every slot tried was taken, over every game.
+     *
+     * @param event The kind of spawn
+     * @return The number of deferred spawns
+     */
+    public long getDeferralCount(Event event) {
+        return deferrals[event.ordinal()];
+    }
+
+    /**
+     * Gets the number of spawns of a kind given up on, over every game.
+     *
+     * @param event The kind of spawn
+     * @return The number of rejected spawns
+     */
+    public long getRejectionCount(Event event) {
+        return rejections[event.ordinal()];
+    }
+
+    /*
+    class to hold the next frame of one kind of spawn, reused every time it is rescheduled
+     */
+    private static final class ScheduledEvent {
+        private final Event event;
+        private int frame;
+
+        private ScheduledEvent(Event event) {
+            this.event = event;
+        }
+    }
+}
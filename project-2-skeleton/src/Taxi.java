@@ -1,5 +1,3 @@
-import bagel.*;
-import bagel.util.Point;
 /**
  * Represents a taxi in the game that can be driven and pick up passengers.
  */
@@ -14,15 +12,20 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
 
     private double health;
     private boolean isDamaged;
-    private int collisionTimeout;
-    private int invincibilityFrames;
-    private boolean coinPowerActive;
-    private int coinPowerFrames;
+    private final TimerWheel timers;
+    private int collisionTimer;
+    private int invincibilityTimer;
+    private int coinPowerTimer;
+    private long coinPowerStartFrame;
+    private final Runnable collisionTimeoutEnded;
+    private final Runnable invincibilityEnded;
+    private final Runnable coinPowerExpired;
     private Passenger currentPassenger;
     private boolean hasDriver;
     private boolean isMoving;
     private int damage;
-    private Point separationDirection;
+    private double separationDx;
+    private double separationDy;
     private int separationFramesLeft;
 
     /**
@@ -34,15 +37,20 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
      * @param radius The collision radius of the taxi
      * @param speedX The horizontal speed of the taxi
      * @param speedY The vertical speed of the taxi
+     * @param timers The wheel the taxi's timed effects are scheduled on
      */
-    public Taxi(double x, double y, String imagePath, double radius, double speedX, double speedY) {
+    public Taxi(double x, double y, String imagePath, double radius, double speedX, double speedY,
+                TimerWheel timers) {
         super(x, y, imagePath, radius, speedX, speedY);
         this.health = TAXI_HEALTH;
         this.isDamaged = false;
-        this.collisionTimeout = 0;
-        this.invincibilityFrames = 0;
-        this.coinPowerActive = false;
-        this.coinPowerFrames = 0;
+        this.timers = timers;
+        this.collisionTimer = TimerWheel.NONE;
+        this.invincibilityTimer = TimerWheel.NONE;
+        this.coinPowerTimer = TimerWheel.NONE;
+        this.collisionTimeoutEnded = () -> collisionTimer = TimerWheel.NONE;
+        this.invincibilityEnded = () -> invincibilityTimer = TimerWheel.NONE;
+        this.coinPowerExpired = () -> coinPowerTimer = TimerWheel.NONE;
         this.hasDriver = false;
         this.currentPassenger = null;
         this.damage = TAXI_DAMAGE;
@@ -51,106 +59,108 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
     /**
      * Moves the taxi based on user input.
      *
-     * @param input The current keyboard input
+     * @param input The directional keys held this frame
+     * @param camera The camera the taxi is viewed through
      */
     @Override
-    public void move(Input input) {
+    public void move(InputFrame input, Camera camera) {
         isMoving = false;
         if (hasDriver) {
-            if (input.isDown(Keys.LEFT)) {
-                position = new Point(Math.max(0, position.x - speedX), position.y);
+            if (input.isLeft()) {
+                x = Math.max(0, x - speedX);
                 isMoving = true;
             }
-            if (input.isDown(Keys.RIGHT)) {
-                position = new Point(Math.min(Window.getWidth(), position.x + speedX), position.y);
+            if (input.isRight()) {
+                x = Math.min(GameWorld.WINDOW_WIDTH, x + speedX);
                 isMoving = true;
             }
-            if (input.isDown(Keys.UP)) {
+            if (input.isUp()) {
                 isMoving = true;
             }
         }
     }
 
     /**
-     * Moves the taxi vertically based on game world scrolling.
+     * Keeps the taxi on screen while the camera scrolls, as long as it is being driven.
+     * An abandoned taxi stays where it is on the road.
      *
-     * @param moveDown true if the game world is scrolling down, false otherwise
+     * @param distance The distance the camera scrolled this frame
      */
     @Override
-    public void moveVertically(boolean moveDown) {
-        if (!hasDriver && moveDown) {
-            super.moveVertically(moveDown);
+    public void followCamera(double distance) {
+        if (hasDriver) {
+            super.followCamera(distance);
         }
     }
 
     /**
-     * Updates the taxi's state, including collision timeouts and power-ups.
+     * Updates the taxi's state, stepping apart from what it last hit. Collision timeouts and
+     * power-ups end through the timer wheel.
      */
     @Override
     public void update() {
-        if (collisionTimeout > 0) {
-            collisionTimeout--;
-            if (separationFramesLeft > 0) {
-                position = new Point(
-                        position.x + separationDirection.x,
-                        position.y + separationDirection.y
-                );
-                separationFramesLeft--;
-            }
-        }
-        if (invincibilityFrames > 0) invincibilityFrames--;
-        if (coinPowerActive) {
-            coinPowerFrames++;
-            if (coinPowerFrames >= MAX_COIN_POWER_FRAMES) {
-                coinPowerActive = false;
-                coinPowerFrames = 0;
-            }
+        if (separationFramesLeft > 0) {
+            x += separationDx;
+            y += separationDy;
+            separationFramesLeft--;
         }
         updatePassengerPosition();
     }
 
     private void updatePassengerPosition() {
         if (currentPassenger != null) {
-            currentPassenger.setPosition(new Point(position.x, position.y));
+            currentPassenger.setPosition(x, y);
         }
     }
 
     /**
-     * Draws the taxi on the game screen.
+     * Draws the taxi into the snapshot of the current frame.
+     *
+     * @param frame The snapshot being recorded
      */
     @Override
-    public void draw() {
-        if (isDamaged) {
-            new Image(DAMAGED_IMAGE).draw(position.x, position.y);
-        } else {
-            image.draw(position.x, position.y);
-        }
+    public void draw(FrameSnapshot frame) {
+        frame.addSprite(this, isDamaged ? DAMAGED_IMAGE : imagePath, x, y);
     }
 
     /**
-     * Handles collision with another game entity.
+     * Gets the collision type of the taxi.
      *
-     * @param other The other entity involved in the collision
+     * @return The collision type
      */
     @Override
-    public void handleCollision(GameEntity other) {
+    public CollisionType getCollisionType() {
+        return CollisionType.TAXI;
+    }
+
+    /**
+     * Handles being hit by a car or fireball, taking its damage and moving apart from it.
+     *
+     * @param other The entity that hit the taxi
+     * @param damage The damage the entity inflicts
+     */
+    public void handleHit(GameEntity other, double damage) {
         //only collide if not active invincibility or recent collision
-        if (collisionTimeout > 0) return;
-
-        if (other instanceof Damageable) {
-            takeDamage(((Damageable) other).getDamage());
-            collisionTimeout = COLLISION_TIMEOUT;
-            separationFramesLeft = SEPARATION_FRAMES;
-
-            //determine separation direction
-            if (this.position.y < other.getPosition().y) {
-                separationDirection = new Point(0, -1); // Taxi moves up
-            } else {
-                separationDirection = new Point(0, 1); // Taxi moves down
-            }
-        } else if (other instanceof PowerUp) {
-            ((PowerUp) other).applyEffect(this);
-        }
+        if (isInCollisionTimeout()) return;
+
+        takeDamage(damage);
+        startCollisionTimeout();
+        separationFramesLeft = SEPARATION_FRAMES;
+
+        //determine separation direction
+        separationDx = 0;
+        separationDy = this.y < other.getY() ? -1 : 1; // Taxi moves up or down
+    }
+
+    /**
+     * Collects a power-up the taxi drove over, unless it is recovering from a collision.
+     *
+     * @param powerUp The power-up to collect
+     */
+    public void collect(PowerUp powerUp) {
+        if (isInCollisionTimeout()) return;
+
+        powerUp.applyEffect(this);
     }
 
     /**
@@ -160,9 +170,9 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
      */
     @Override
     public void takeDamage(double amount) {
-        if (invincibilityFrames == 0 && collisionTimeout == 0) {
+        if (invincibilityTimer == TimerWheel.NONE && !isInCollisionTimeout()) {
             health -= amount;
-            collisionTimeout = COLLISION_TIMEOUT;
+            startCollisionTimeout();
             if (health <= 0) {
                 isDamaged = true;
                 ejectOccupants();
@@ -170,12 +180,16 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
         }
     }
 
+    private void startCollisionTimeout() {
+        collisionTimer = timers.reschedule(collisionTimer, COLLISION_TIMEOUT, collisionTimeoutEnded);
+    }
+
     /*
     method to eject passenger if taxi is damaged
      */
     private void ejectOccupants() {
         if (currentPassenger != null) {
-            currentPassenger.setPosition(new Point(position.x - 100, position.y));
+            currentPassenger.setPosition(x - 100, y);
             currentPassenger.setFollowingDriver(true);
             currentPassenger.setPickedUp(false);
         }
@@ -186,15 +200,15 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
      * Activates invincibility for the taxi.
      */
     public void activateInvincibility() {
-        invincibilityFrames = INVINCIBILITY_FRAMES;
+        invincibilityTimer = timers.reschedule(invincibilityTimer, INVINCIBILITY_FRAMES, invincibilityEnded);
     }
 
     /**
      * Activates the coin power for the taxi.
      */
     public void activateCoinPower() {
-        coinPowerActive = true;
-        coinPowerFrames = 0;
+        coinPowerTimer = timers.reschedule(coinPowerTimer, MAX_COIN_POWER_FRAMES, coinPowerExpired);
+        coinPowerStartFrame = timers.getFrame();
     }
 
     /**
@@ -220,8 +234,7 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
      */
     public boolean canDropOffPassenger(TripEndFlag flag) {
         if (currentPassenger != null && !isMoving()) {
-            return position.y <= flag.getPosition().y ||
-                    position.distanceTo(flag.getPosition()) <= flag.getRadius();
+            return y <= flag.getY() || distanceTo(flag) <= flag.getRadius();
         }
         return false;
     }
@@ -257,13 +270,22 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
         return isDamaged;
     }
 
+    /**
+     * Checks if the taxi is recovering from a collision, during which it cannot be hit again.
+     *
+     * @return true if the taxi is in collision timeout, false otherwise
+     */
+    public boolean isInCollisionTimeout() {
+        return collisionTimer != TimerWheel.NONE;
+    }
+
     /**
      * Checks if the taxi has an active coin power.
      *
      * @return true if the coin power is active, false otherwise
      */
     public boolean hasCoinPower() {
-        return coinPowerActive;
+        return coinPowerTimer != TimerWheel.NONE;
     }
 
     /**
@@ -272,7 +294,7 @@ public class Taxi extends MovableEntity implements Collidable, Damageable {
      * @return The number of active coin power frames
      */
     public int getCoinPowerFrames() {
-        return coinPowerFrames;
+        return hasCoinPower() ? (int) (timers.getFrame() - coinPowerStartFrame) : 0;
     }
 
     /**
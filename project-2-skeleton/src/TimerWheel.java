@@ -0,0 +1,233 @@
+import java.util.Arrays;
+
+/**
+ * A hierarchical timer wheel that counts frames and runs a callback when a timer expires.
+ * Entities schedule the end of an effect once, rather than counting it down in every update,
+ * so an entity with nothing running costs nothing and each frame only does work for the timers
+ * that expire in it. Timers due within 64 frames sit in the slot of their frame in the first wheel;
+ * later ones sit in a coarser wheel, 64 times slower per level, and move down a level each time
+ * the finer wheel below comes round to them.
+ * <p>
+ * Timers are kept in preallocated linked nodes, and a handle is the index of a node, so scheduling
+ * and cancelling allocate nothing. A handle is only valid until its timer expires or is cancelled.
+ */
+public class TimerWheel {
+    /**
+     * The handle of no timer.
+     */
+    public static final int NONE = -1;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int INITIAL_CAPACITY = 64;
+
+    //the first and last node of each slot, level by level
+    private final int[] heads;
+    private final int[] tails;
+
+    //timer nodes, with free nodes chained through next
+    private long[] expiries;
+    private Runnable[] actions;
+    private int[] next;
+    private int[] previous;
+    private int[] slots;
+    private int free;
+    private int count;
+
+    private long frame;
+
+    /**
+     * Constructs a new TimerWheel at frame 0, with no timers.
+     */
+    public TimerWheel() {
+        heads = new int[LEVELS * SLOTS];
+        tails = new int[LEVELS * SLOTS];
+        expiries = new long[INITIAL_CAPACITY];
+        actions = new Runnable[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+        previous = new int[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY];
+        clear();
+    }
+
+    /**
+     * Schedules a callback to run a number of frames from now.
+     *
+     * @param frames The number of frames until the timer expires, at least 1
+     * @param action The callback to run when it expires
+     * @return The handle of the timer, for cancelling it
+     */
+    public int schedule(int frames, Runnable action) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("A timer must expire at least 1 frame from now, not " + frames);
+        }
+        if (free == NONE) {
+            grow();
+        }
+        int node = free;
+        free = next[node];
+        expiries[node] = frame + frames;
+        actions[node] = action;
+        insert(node);
+        count++;
+        return node;
+    }
+
+    /**
+     * Cancels a timer, if there is one, and schedules a callback in its place.
+     *
+     * @param handle The handle of the timer to cancel, or NONE
+     * @param frames The number of frames until the new timer expires, at least 1
+     * @param action The callback to run when it expires
+     * @return The handle of the new timer
+     */
+    public int reschedule(int handle, int frames, Runnable action) {
+        cancel(handle);
+        return schedule(frames, action);
+    }
+
+    /**
+     * Cancels a timer before it expires.
+     *
+     * @param handle The handle of the timer, or NONE to do nothing
+     */
+    public void cancel(int handle) {
+        if (handle == NONE) {
+            return;
+        }
+        unlink(handle);
+        release(handle);
+    }
+
+    /**
+     * Moves on to the next frame and runs the callbacks of the timers expiring in it, in the order
+     * they came due. Callbacks may schedule and cancel timers.
+     */
+    public void advance() {
+        frame++;
+        //coarser wheels come round to their next slot when every finer wheel below them wraps
+        int level = 1;
+        while (level < LEVELS && (frame & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+            level++;
+        }
+        for (int cascade = level - 1; cascade >= 1; cascade--) {
+            cascade(cascade);
+        }
+
+        int slot = (int) (frame & SLOT_MASK);
+        while (heads[slot] != NONE) {
+            int node = heads[slot];
+            unlink(node);
+            Runnable action = actions[node];
+            release(node);
+            action.run();
+        }
+    }
+
+    /**
+     * Cancels every timer, keeping the frame count.
+     */
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        Arrays.fill(actions, null);
+        for (int node = 0; node < next.length; node++) {
+            next[node] = node + 1 < next.length ? node + 1 : NONE;
+        }
+        free = next.length > 0 ? 0 : NONE;
+        count = 0;
+    }
+
+    /*
+    method to put a node in the slot of the finest wheel that reaches its expiry
+     */
+    private void insert(int node) {
+        long delay = expiries[node] - frame;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        //timers beyond the coarsest wheel wait in it and are placed again when it comes round
+        int slot = level * SLOTS + (int) ((expiries[node] >> (SLOT_BITS * level)) & SLOT_MASK);
+        slots[node] = slot;
+        next[node] = NONE;
+        previous[node] = tails[slot];
+        if (tails[slot] == NONE) {
+            heads[slot] = node;
+        } else {
+            next[tails[slot]] = node;
+        }
+        tails[slot] = node;
+    }
+
+    /*
+    method to move the timers of a coarser wheel's current slot down to the finer wheels
+     */
+    private void cascade(int level) {
+        int slot = level * SLOTS + (int) ((frame >> (SLOT_BITS * level)) & SLOT_MASK);
+        int node = heads[slot];
+        heads[slot] = NONE;
+        tails[slot] = NONE;
+        while (node != NONE) {
+            int following = next[node];
+            insert(node);
+            node = following;
+        }
+    }
+
+    private void unlink(int node) {
+        int slot = slots[node];
+        if (previous[node] == NONE) {
+            heads[slot] = next[node];
+        } else {
+            next[previous[node]] = next[node];
+        }
+        if (next[node] == NONE) {
+            tails[slot] = previous[node];
+        } else {
+            previous[next[node]] = previous[node];
+        }
+    }
+
+    private void release(int node) {
+        actions[node] = null;
+        next[node] = free;
+        free = node;
+        count--;
+    }
+
+    private void grow() {
+        int capacity = expiries.length * 2;
+        int first = expiries.length;
+        expiries = Arrays.copyOf(expiries, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        for (int node = first; node < capacity; node++) {
+            next[node] = node + 1 < capacity ? node + 1 : free;
+        }
+        free = first;
+    }
+
+    //getters
+    /**
+     * Gets the number of frames the wheel has moved on since it was created.
+     *
+     * @return The current frame
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * Gets the number of timers waiting to expire.
+     *
+     * @return The number of timers
+     */
+    public int size() {
+        return count;
+    }
+}
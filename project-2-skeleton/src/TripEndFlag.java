@@ -1,5 +1,3 @@
-import bagel.util.Point;
-
 /**
  * Represents the end flag for a passenger's trip.
  */
@@ -25,19 +23,13 @@ public class TripEndFlag extends GameEntity {
     }
 
     @Override
-    public void draw() {
+    public void draw(FrameSnapshot frame) {
         if (isVisible) {
-            image.draw(position.x, position.y);
+            frame.addSprite(this, imagePath, x, y);
         }
     }
 
 
-    public void moveVertically(boolean moveDown) {
-        if (moveDown) {
-            position = new Point(position.x, position.y + SCROLL_SPEED);
-        }
-    }
-
     //getters and setters
     public boolean isVisible() {
         return isVisible;
@@ -46,8 +38,4 @@ public class TripEndFlag extends GameEntity {
     public void setVisible(boolean visible) {
         isVisible = visible;
     }
-
-    public Point getPosition() {
-        return position;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands values from one producer thread to one consumer thread without locks or waiting.
+ * Of the three buffers, the producer writes the back one and the consumer reads the front one,
+ * and the middle one is swapped with either side in a single atomic step. The consumer always
+ * sees the latest published value, and values it was too slow to read are simply skipped.
+ *
+ * @param <T> The type of value held in each buffer
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] buffers;
+    //the index of the middle buffer, with FRESH set while it holds a value the consumer has not taken
+    private final AtomicInteger middle;
+    private int back;
+    private int front;
+
+    /**
+     * Constructs a new TripleBuffer, creating each of its three buffers.
+     *
+     * @param factory Creates an empty buffer
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        this.buffers = new Object[]{factory.get(), factory.get(), factory.get()};
+        this.front = 0;
+        this.middle = new AtomicInteger(1);
+        this.back = 2;
+    }
+
+    /**
+     * Publishes the back buffer to the consumer and takes a free buffer to write next.
+     * Called from the producer thread only.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Takes the latest published buffer, if one was published since the last call.
+     * Called from the consumer thread only.
+     *
+     * @return The latest published buffer, or the one taken before if nothing new was published
+     */
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return getFront();
+    }
+
+    //getters
+    /**
+     * Gets the buffer the producer is writing. Called from the producer thread only.
+     *
+     * @return The back buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Gets the buffer the consumer last took. Called from the consumer thread only.
+     *
+     * @return The front buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        return (T) buffers[front];
+    }
+}
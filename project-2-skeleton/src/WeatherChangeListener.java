@@ -0,0 +1,12 @@
+/**
+ * Receives the weather-change events fired by a WeatherTimeline.
+ */
+public interface WeatherChangeListener {
+    /**
+     * Called when the weather changes.
+     *
+     * @param previous The weather before the change
+     * @param current The weather after the change
+     */
+    void onWeatherChange(WeatherCondition.WeatherType previous, WeatherCondition.WeatherType current);
+}
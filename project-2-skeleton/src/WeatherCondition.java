@@ -26,6 +26,14 @@ public class WeatherCondition {
         return type;
     }
 
+    public int getStartFrame() {
+        return startFrame;
+    }
+
+    public int getEndFrame() {
+        return endFrame;
+    }
+
     public boolean isActive(int currentFrame) {
         return currentFrame >= startFrame && currentFrame <= endFrame;
     }
@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The weather over the course of a game, compiled from a list of weather conditions.
+ * Where conditions overlap, the one listed first wins, and between conditions the previous
+ * weather carries on. The conditions are resolved once into the frames at which the weather
+ * actually changes, so advancing frame by frame only moves a cursor, and listeners are told
+ * about each change as it is reached.
+ */
+public class WeatherTimeline {
+    private final WeatherCondition.WeatherType initialWeather;
+    private final int[] changeFrames;
+    private final WeatherCondition.WeatherType[] changeTypes;
+    private final List<WeatherChangeListener> listeners;
+
+    private int cursor;
+    private int lastFrame;
+    private WeatherCondition.WeatherType currentWeather;
+
+    /**
+     * Constructs a new WeatherTimeline from weather conditions in priority order.
+     *
+     * @param conditions The weather conditions, earlier conditions taking priority over later ones
+     * @param initialWeather The weather before any condition starts
+     */
+    public WeatherTimeline(List<WeatherCondition> conditions, WeatherCondition.WeatherType initialWeather) {
+        this.initialWeather = initialWeather;
+        this.listeners = new ArrayList<>();
+
+        int count = conditions.size();
+        Integer[] byStart = new Integer[count];
+        Integer[] byEnd = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            byStart[i] = i;
+            byEnd[i] = i;
+        }
+        Arrays.sort(byStart, (a, b) -> Integer.compare(conditions.get(a).getStartFrame(), conditions.get(b).getStartFrame()));
+        Arrays.sort(byEnd, (a, b) -> Integer.compare(conditions.get(a).getEndFrame(), conditions.get(b).getEndFrame()));
+
+        //sweep the condition boundaries, keeping the active conditions ordered by priority
+        int[] frames = new int[2 * count];
+        WeatherCondition.WeatherType[] types = new WeatherCondition.WeatherType[2 * count];
+        int changes = 0;
+        WeatherCondition.WeatherType weather = initialWeather;
+        TreeSet<Integer> active = new TreeSet<>();
+        int nextStart = 0;
+        int nextEnd = 0;
+        while (nextStart < count || nextEnd < count) {
+            //conditions stop applying on the frame after their inclusive end frame
+            long startBoundary = nextStart < count ? conditions.get(byStart[nextStart]).getStartFrame() : Long.MAX_VALUE;
+            long endBoundary = nextEnd < count ? conditions.get(byEnd[nextEnd]).getEndFrame() + 1L : Long.MAX_VALUE;
+            long frame = Math.min(startBoundary, endBoundary);
+
+            while (nextEnd < count && conditions.get(byEnd[nextEnd]).getEndFrame() + 1L == frame) {
+                active.remove(byEnd[nextEnd++]);
+            }
+            while (nextStart < count && conditions.get(byStart[nextStart]).getStartFrame() == frame) {
+                int index = byStart[nextStart++];
+                if (conditions.get(index).getEndFrame() >= frame) {
+                    active.add(index);
+                }
+            }
+
+            if (!active.isEmpty() && frame <= Integer.MAX_VALUE) {
+                WeatherCondition.WeatherType winner = conditions.get(active.first()).getType();
+                if (winner != weather) {
+                    frames[changes] = (int) frame;
+                    types[changes] = winner;
+                    changes++;
+                    weather = winner;
+                }
+            }
+        }
+
+        this.changeFrames = Arrays.copyOf(frames, changes);
+        this.changeTypes = Arrays.copyOf(types, changes);
+        this.currentWeather = initialWeather;
+        this.lastFrame = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Registers a listener to be told whenever the weather changes.
+     *
+     * @param listener The listener to add
+     */
+    public void addListener(WeatherChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Moves the timeline to a frame, firing a weather-change event if the weather there differs.
+     * Advancing to a later frame is amortised constant time; going back searches the timeline.
+     *
+     * @param frame The frame to move to
+     */
+    public void advanceTo(int frame) {
+        if (frame < lastFrame) {
+            cursor = countChangesUpTo(frame);
+        }
+        while (cursor < changeFrames.length && changeFrames[cursor] <= frame) {
+            cursor++;
+        }
+        lastFrame = frame;
+
+        WeatherCondition.WeatherType weather = cursor == 0 ? initialWeather : changeTypes[cursor - 1];
+        if (weather != currentWeather) {
+            WeatherCondition.WeatherType previous = currentWeather;
+            currentWeather = weather;
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).onWeatherChange(previous, weather);
+            }
+        }
+    }
+
+    /*
+    method to binary search for the number of weather changes at or before a frame
+     */
+    private int countChangesUpTo(int frame) {
+        int low = 0;
+        int high = changeFrames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (changeFrames[mid] <= frame) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    //getters
+    /**
+     * Gets the weather at the frame the timeline was last moved to.
+     *
+     * @return The current weather type
+     */
+    public WeatherCondition.WeatherType getCurrentWeather() {
+        return currentWeather;
+    }
+
+    /**
+     * Gets the number of times the weather changes over the timeline.
+     *
+     * @return The number of weather changes
+     */
+    public int getChangeCount() {
+        return changeFrames.length;
+    }
+}
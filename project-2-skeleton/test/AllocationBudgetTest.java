@@ -0,0 +1,27 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the simulation stays within its heap allocation budget frame by frame once warmed up.
+ */
+public class AllocationBudgetTest {
+    private static final long SEED = 7;
+    private static final int FRAMES = 50000;
+    //a frame only allocates the level objects scrolling into view and a regenerated taxi, a few hundred bytes
+    private static final long FRAME_BUDGET = 2048;
+    //and those frames are rare, so a steady per-frame allocation shows up here even if it is small
+    private static final double MIN_ALLOCATION_FREE_SHARE = 0.95;
+
+    @Test
+    public void everyFrameStaysWithinBudget() {
+        GameConfig config = GameConfig.fromProperties(IOUtils.readPropertiesFile("res/app.properties"));
+        GameWorld world = new GameWorld(config, SEED);
+        HeadlessSimulation.AllocationReport report = HeadlessSimulation.measureAllocations(world, FRAMES);
+
+        assertTrue(report.getMaxBytes() <= FRAME_BUDGET,
+                "a frame allocated " + report.getMaxBytes() + " bytes, over the budget of " + FRAME_BUDGET);
+        assertTrue(report.getAllocationFreeFrames() >= report.getFrames() * MIN_ALLOCATION_FREE_SHARE,
+                "only " + report.getAllocationFreeFrames() + " of " + report.getFrames() + " frames allocated nothing");
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that collisions are resolved in the order the game has always resolved them, where one
+ * response changes the outcome of the next.
+ */
+public class CollisionOrderTest {
+    //digest of the driver trace below, recorded from the per-type collision loops of the game before
+    //collisions were dispatched through the collision matrix, with cars drawing their speed only when spawned
+    private static final long DRIVER_TRACE_DIGEST = 0xba2d117c810ac5c4L;
+    private static final int DRIVER_TRACE_FRAMES = 3000;
+    private static final long SEED = 7;
+
+    private static GameConfig loadConfig() {
+        return GameConfig.fromProperties(IOUtils.readPropertiesFile("res/app.properties"));
+    }
+
+    /*
+    method to put an invincible power and a fireball on top of the driver
+     */
+    private static Fireball dropOnDriver(GameWorld world, GameConfig config) {
+        Driver driver = world.getDriver();
+        world.getInvinciblePowers().add(new InvinciblePower(driver.getX(), driver.getY(),
+                config.invinciblePower.image, config.invinciblePower.radius));
+        Fireball fireball = world.getFireballPool().acquire();
+        fireball.reset(driver.getX(), driver.getY());
+        world.getFireballs().add(fireball);
+        return fireball;
+    }
+
+    @Test
+    public void driverIsHitByFireballBeforeCollectingPowerUp() {
+        GameConfig config = loadConfig();
+        GameWorld world = new GameWorld(config, SEED);
+        world.getCars().clear();
+        world.getEnemyCars().clear();
+        Driver driver = world.getDriver();
+        driver.exitTaxi();
+        driver.setPosition(driver.getX() + 200, driver.getY() - 200);
+        Fireball fireball = dropOnDriver(world, config);
+
+        double health = driver.getHealth();
+        world.handleCollisions();
+        assertEquals(health - fireball.getDamage(), driver.getHealth(), 1e-9);
+
+        //the collision timeout stopped the pick-up, so the next fireball hurts once the timeout is over
+        for (int frame = 0; frame < 200; frame++) {
+            world.step(InputFrame.of(false, false, false, false));
+        }
+        health = driver.getHealth();
+        fireball = dropOnDriver(world, config);
+        world.handleCollisions();
+        assertEquals(health - fireball.getDamage(), driver.getHealth(), 1e-9);
+    }
+
+    @Test
+    public void seededDriverTraceMatchesPerTypeCollisionLoops() {
+        GameConfig config = loadConfig();
+        GameWorld world = new GameWorld(config, SEED);
+        long digest = 0xcbf29ce484222325L;
+        for (int frame = 0; frame < DRIVER_TRACE_FRAMES && !world.isGameOver(); frame++) {
+            Driver driver = world.getDriver();
+            if (frame == 5) {
+                driver.exitTaxi();
+                driver.setPosition(driver.getX() - 120, driver.getY());
+            }
+            boolean left = (frame / 30) % 2 == 0;
+            world.step(InputFrame.of(false, false, left, !left));
+            if (!driver.isInTaxi() && frame % 40 == 20) {
+                dropOnDriver(world, config);
+                world.handleCollisions();
+            }
+            String line = frame + " " + world.getDriver().getHealth() + " " + world.getDriver().getX() + " "
+                    + world.getDriver().getY() + " " + world.getTaxi().getHealth() + " "
+                    + world.getInvinciblePowers().size() + " " + world.getFireballs().size();
+            for (int i = 0; i < line.length(); i++) {
+                digest ^= line.charAt(i);
+                digest *= 0x100000001b3L;
+            }
+        }
+        assertEquals(DRIVER_TRACE_DIGEST, digest);
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a seeded game plays out the same whatever the memory settings.
+ */
+public class SeedReproducibilityTest {
+    private static final long SEED = 7;
+    private static final int FRAMES = 5000;
+
+    /*
+    method to play a seeded game with the given pool sizes, hashing where every car is each frame
+     */
+    private static long playWithPools(String carPoolSize, String enemyCarPoolSize) {
+        Properties props = IOUtils.readPropertiesFile("res/app.properties");
+        props.setProperty("pool.otherCar.size", carPoolSize);
+        props.setProperty("pool.enemyCar.size", enemyCarPoolSize);
+        GameWorld world = new GameWorld(GameConfig.fromProperties(props), SEED);
+
+        long digest = 0xcbf29ce484222325L;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            world.step(InputFrame.of(frame % 90 < 60, false, false, false));
+            if (world.isGameOver()) {
+                world.reset();
+            }
+            for (Car car : world.getCars()) {
+                digest = (digest ^ Double.doubleToLongBits(car.getY())) * 0x100000001b3L;
+            }
+            for (EnemyCar enemyCar : world.getEnemyCars()) {
+                digest = (digest ^ Double.doubleToLongBits(enemyCar.getY())) * 0x100000001b3L;
+            }
+        }
+        return digest;
+    }
+
+    @Test
+    public void poolSizesDoNotChangeSeededGame() {
+        assertEquals(playWithPools("16", "16"), playWithPools("1", "64"));
+    }
+}